@@ -0,0 +1,37 @@
+package com.example.login.actuator;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.service.PasswordCostCalibrator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/passwordcost}) reporting the password hashing
+ * policy in effect and the per-KDF latencies measured by {@link PasswordCostCalibrator},
+ * for sizing login throughput per host.
+ */
+@Component
+@Endpoint(id = "passwordcost")
+@RequiredArgsConstructor
+public class PasswordCostEndpoint {
+
+    private final PasswordCostCalibrator calibrator;
+    private final LoginConfig loginConfig;
+
+    @ReadOperation
+    public Map<String, Object> passwordCost() {
+        LoginConfig.PasswordPolicyProperties policy = loginConfig.getPasswordPolicy();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("targetType", policy.getTargetType());
+        response.put("calibrationEnabled", policy.getCalibration().isEnabled());
+        response.put("targetMillis", policy.getCalibration().getTargetMillis());
+        response.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        response.put("calibrations", calibrator.getCalibrations());
+        return response;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.login.config;
+
+import com.example.login.datasource.ConnectionHoldHandlerInterceptor;
+import com.example.login.datasource.ConnectionHoldRepositoryInterceptor;
+import com.example.login.datasource.ConnectionHoldTimingDataSource;
+import com.example.login.datasource.HikariPoolSizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import javax.sql.DataSource;
+
+/**
+ * Sizes the connection pools and, unless {@code login.connection-pool.hold-metrics}
+ * is off, times every connection the application takes, attributed to the
+ * controller method and repository that took it.
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static HikariPoolSizer hikariPoolSizer(Environment environment) {
+        // Bound directly: post-processors are created before LoginConfig can be
+        return new HikariPoolSizer(Binder.get(environment)
+                .bind("login.connection-pool", LoginConfig.ConnectionPoolProperties.class)
+                .orElseGet(LoginConfig.ConnectionPoolProperties::new));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "login.connection-pool.hold-metrics", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor connectionHoldTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                // Time physical connections, not the handles the lazy proxy gives out before the first statement
+                if (bean instanceof LazyConnectionDataSourceProxy lazy) {
+                    lazy.setTargetDataSource(new ConnectionHoldTimingDataSource(
+                            lazy.getTargetDataSource(), meterRegistry.getObject()));
+                    return lazy;
+                }
+                return new ConnectionHoldTimingDataSource(dataSource, meterRegistry.getObject());
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "login.connection-pool.hold-metrics", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor connectionHoldRepositoryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    // Ahead of the transaction interceptor, which takes the connection
+                                    proxyFactory.indexOf(ExposeInvocationInterceptor.ADVISOR) + 1,
+                                    new ConnectionHoldRepositoryInterceptor(
+                                            repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "login.connection-pool.hold-metrics", havingValue = "true", matchIfMissing = true)
+    public MappedInterceptor connectionHoldHandlerInterceptor() {
+        // A mapped interceptor also applies to the Spring Data REST handler mapping
+        return new MappedInterceptor(null, new ConnectionHoldHandlerInterceptor());
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.login.config;
 
+import com.example.login.security.JwtKeyRing;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -8,6 +11,9 @@ import org.springframework.context.annotation.Configuration;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @ConfigurationProperties(prefix = "jwt")
@@ -17,9 +23,70 @@ public class JwtConfig {
     private String secret = "mySecretKey123456789012345678901234567890123456789012345678901234567890";
     private long expiration = 86400000; // 24 hours in milliseconds
     private String issuer = "login-app";
+    private CacheProperties cache = new CacheProperties();
+    private RevocationProperties revocation = new RevocationProperties();
+    private SigningProperties signing = new SigningProperties();
 
     @Bean
     public SecretKey secretKey() {
         return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
+
+    /**
+     * Parser that picks the verification key from the token header. JwtParser instances
+     * are immutable and thread-safe, so a single instance is shared by every token verification.
+     */
+    @Bean
+    public JwtParser jwtParser(JwtKeyRing keyRing) {
+        return Jwts.parser()
+                .keyLocator(keyRing)
+                .build();
+    }
+
+    /**
+     * Settings for the verified token cache (jwt.cache.*).
+     */
+    @Data
+    public static class CacheProperties {
+        private boolean enabled = false;
+        private long maximumSize = 10000;
+    }
+
+    /**
+     * Settings for token revocation (jwt.revocation.*).
+     */
+    @Data
+    public static class RevocationProperties {
+        private String backend = "jdbc"; // jdbc (shared by the cluster) or memory (single node only)
+        private long sweepInterval = 30000; // milliseconds between sweeps
+        private int sweepBatchBuckets = 16; // expiry-minute buckets dropped per batch
+        private long sweepTimeBudget = 5; // milliseconds a single sweep may run
+        private long epochRefreshInterval = 10000; // milliseconds between incremental token epoch reloads
+        private long epochRefreshOverlap = 5000; // milliseconds of date_updated re-read on each reload, for clock skew
+        private long epochRebuildInterval = 600000; // milliseconds between full token epoch reloads
+        private long syncInterval = 2000; // milliseconds between backend feed polls
+        private int syncBatchSize = 1000; // revocations fetched per feed query
+        private long syncOverlap = 256; // feed IDs re-read on each poll; concurrent inserts can commit out of ID order
+        private long bloomExpectedInsertions = 100000;
+        private double bloomFalsePositiveRate = 0.01;
+        private long bloomRebuildInterval = 900000; // milliseconds between full Bloom filter rebuilds
+        private long purgeInterval = 300000; // milliseconds between backend purges of expired revocations
+        private long remoteLookupCacheSize = 10000; // cleared tokens remembered after a remote lookup
+    }
+
+    /**
+     * Settings for token signing (jwt.signing.*).
+     */
+    @Data
+    public static class SigningProperties {
+        private String algorithm = "HS512"; // HS512 (shared jwt.secret), ES256 or EdDSA
+        private String keyId; // kid header for a configured key pair, defaults to its JWK thumbprint
+        private String privateKey; // PKCS#8 PEM or base64 DER
+        private String publicKey; // X.509 PEM or base64 DER
+        private long jwksMaxAge = 900; // seconds clients may cache the JWK set
+        private long rotationPeriod = 0; // milliseconds each signing key is current; 0 signs HS512 with jwt.secret itself
+        private long rotationCheckInterval = 60000; // milliseconds between rotation checks
+        private List<String> previousSecrets = new ArrayList<>(); // former jwt.secret values still accepted for HS512
+        private Instant legacyTokensUntil; // ES256/EdDSA accept HS512 tokens without a kid until then; unset rejects them
+    }
 }
@@ -0,0 +1,147 @@
+package com.example.login.config;
+
+import com.example.login.entity.User;
+import com.example.login.util.PasswordHashUtil;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "login")
+@Data
+public class LoginConfig {
+
+    private LastLoginProperties lastLogin = new LastLoginProperties();
+    private AuditProperties audit = new AuditProperties();
+    private PasswordVerificationProperties passwordVerification = new PasswordVerificationProperties();
+    private PasswordPolicyProperties passwordPolicy = new PasswordPolicyProperties();
+    private IdentifierFilterProperties identifierFilter = new IdentifierFilterProperties();
+    private AuthzCacheProperties authzCache = new AuthzCacheProperties();
+    private ReadReplicaProperties readReplicas = new ReadReplicaProperties();
+    private ConnectionPoolProperties connectionPool = new ConnectionPoolProperties();
+
+    /**
+     * Settings for the background last-login writer (login.last-login.*).
+     */
+    @Data
+    public static class LastLoginProperties {
+        private long flushInterval = 1000; // milliseconds between batched writes
+        private int maxPending = 100000; // users awaiting a write before new logins are dropped
+        private int batchSize = 500; // users updated per statement
+    }
+
+    /**
+     * Settings for the login audit trail (login.audit.*).
+     */
+    @Data
+    public static class AuditProperties {
+        private boolean enabled = true;
+        private int bufferSize = 65536; // events buffered before new ones are dropped, rounded up to a power of two
+        private int batchSize = 500; // events inserted per JDBC batch
+        private long idleWait = 5; // milliseconds the writer sleeps when the buffer is empty
+    }
+
+    /**
+     * Settings for the password verification pool (login.password-verification.*).
+     */
+    @Data
+    public static class PasswordVerificationProperties {
+        private int threads = 0; // 0 uses one thread per available processor
+        private int queueCapacity = 64; // verifications waiting for a thread before new ones are rejected
+        private long maxWait = 2000; // milliseconds a caller waits for its result before giving up
+        private long retryAfter = 1; // seconds suggested to clients in Retry-After
+    }
+
+    /**
+     * Target password hashing policy (login.password-policy.*).
+     * New hashes use the target type and cost; older hashes are re-encoded on login.
+     * Costs are volatile because the startup calibration raises them while requests are served.
+     */
+    @Data
+    public static class PasswordPolicyProperties {
+        private User.PasswordType targetType = User.PasswordType.ARGON2ID;
+        private volatile int argon2MemoryKb = PasswordHashUtil.ARGON2_DEFAULT_MEMORY_KB;
+        private volatile int argon2Iterations = PasswordHashUtil.ARGON2_DEFAULT_ITERATIONS;
+        private volatile int argon2Parallelism = PasswordHashUtil.ARGON2_DEFAULT_PARALLELISM;
+        private volatile int pbkdf2Iterations = PasswordHashUtil.PBKDF2_DEFAULT_ITERATIONS;
+        private volatile int bcryptCost = PasswordHashUtil.BCRYPT_DEFAULT_COST;
+        private boolean rehashOnLogin = true;
+        private int rehashQueueCapacity = 1000; // pending re-encodings before new ones are skipped until the next login
+        private CalibrationProperties calibration = new CalibrationProperties();
+    }
+
+    /**
+     * Startup cost calibration (login.password-policy.calibration.*).
+     * The configured costs act as minimums; calibration only raises them.
+     */
+    @Data
+    public static class CalibrationProperties {
+        private boolean enabled = true;
+        private long targetMillis = 50; // hash time to aim for on this host
+        private int samples = 3; // timed hashes per measurement, the median is used
+    }
+
+    /**
+     * Bloom filter of existing usernames and emails (login.identifier-filter.*).
+     */
+    @Data
+    public static class IdentifierFilterProperties {
+        private boolean enabled = true;
+        private long expectedInsertions = 1_000_000; // minimum filter size; grows with the user count on rebuild
+        private double falsePositiveRate = 0.001;
+        private long syncInterval = 2000; // milliseconds between reads of newly created or renamed users
+        private long syncOverlap = 60000; // milliseconds re-read on each sync to tolerate clock skew between nodes
+        private long rebuildInterval = 3600000; // milliseconds between full rebuilds that drop deleted users
+    }
+
+    /**
+     * Per-node cache of user authorization snapshots (login.authz-cache.*).
+     */
+    @Data
+    public static class AuthzCacheProperties {
+        private boolean enabled = true;
+        private long maximumSize = 100_000; // users cached before the least valuable are evicted
+        private long expireAfterWrite = 300000; // milliseconds a snapshot is trusted; bounds staleness from deleted rows
+        private long reconcileInterval = 5000; // milliseconds between reads of rows changed on other nodes
+        private long reconcileOverlap = 60000; // milliseconds re-read on each reconcile to tolerate clock skew between nodes
+    }
+
+    /**
+     * Routing of read-only transactions to MySQL replicas (login.read-replicas.*).
+     */
+    @Data
+    public static class ReadReplicaProperties {
+        private boolean enabled = false;
+        private List<ReplicaProperties> replicas = new ArrayList<>();
+        private int maximumPoolSize = 0; // connections per replica pool; 0 sizes it like the primary from the core count
+        private long maxLag = 5; // seconds a replica may trail the primary before reads fall back to other pools
+        private long lagCheckInterval = 5000; // milliseconds between replication lag checks
+        private long probeTimeout = 1000; // milliseconds a lag check waits for a replica before treating it as unreachable
+        private String lagQuery = "SHOW REPLICA STATUS"; // SHOW SLAVE STATUS before MySQL 8.0.22
+        private String lagColumn = "Seconds_Behind_Source"; // Seconds_Behind_Master before MySQL 8.0.22
+    }
+
+    /**
+     * Connection settings of one replica; user and password default to spring.datasource.
+     */
+    @Data
+    public static class ReplicaProperties {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    /**
+     * Connection pool sizing and hold-time metrics (login.connection-pool.*).
+     */
+    @Data
+    public static class ConnectionPoolProperties {
+        private int connectionsPerCore = 2; // pools without maximum-pool-size get cores * this + effective-spindle-count
+        private int effectiveSpindleCount = 1;
+        private boolean holdMetrics = true; // publish db.connection.hold per endpoint and repository
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.login.config;
+
+import com.example.login.datasource.HikariPoolSizer;
+import com.example.login.datasource.ReplicaLagMonitor;
+import com.example.login.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single {@code spring.datasource} pool with a primary pool for writes
+ * and one read-only pool per replica when {@code login.read-replicas.enabled} is set.
+ * Every pool publishes {@code hikaricp.connections.*} meters tagged with its pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "login.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    private static final String PRIMARY_POOL = "primary";
+    private static final String REPLICA_POOL_PREFIX = "replica-";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(PRIMARY_POOL);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             LoginConfig loginConfig, MeterRegistry meterRegistry) {
+        LoginConfig.ReadReplicaProperties properties = loginConfig.getReadReplicas();
+        int poolSize = properties.getMaximumPoolSize() > 0 ? properties.getMaximumPoolSize()
+                : HikariPoolSizer.poolSize(loginConfig.getConnectionPool(), Runtime.getRuntime().availableProcessors());
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            LoginConfig.ReplicaProperties replica = properties.getReplicas().get(i);
+            String name = replica.getName() != null ? replica.getName() : REPLICA_POOL_PREFIX + i;
+            // Leak detection, timeouts and driver properties follow spring.datasource.hikari
+            HikariDataSource dataSource = new HikariDataSource();
+            primaryDataSource.copyStateTo(dataSource);
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null
+                    ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null
+                    ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(name, dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               LoginConfig loginConfig) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, loginConfig);
+    }
+}
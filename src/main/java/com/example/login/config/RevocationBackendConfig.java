@@ -0,0 +1,29 @@
+package com.example.login.config;
+
+import com.example.login.security.InMemoryRevocationBackend;
+import com.example.login.security.JdbcRevocationBackend;
+import com.example.login.security.RevocationBackend;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Selects the shared token revocation backend from {@code jwt.revocation.backend}.
+ * The {@code revoked_tokens} table is the default so logout takes effect on every node.
+ */
+@Configuration
+public class RevocationBackendConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "jwt.revocation.backend", havingValue = "jdbc", matchIfMissing = true)
+    public RevocationBackend jdbcRevocationBackend(JdbcTemplate jdbcTemplate) {
+        return new JdbcRevocationBackend(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "jwt.revocation.backend", havingValue = "memory")
+    public RevocationBackend inMemoryRevocationBackend() {
+        return new InMemoryRevocationBackend();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.login.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the revoked token sweeper.
+ * They share the {@code spring.task.scheduling.pool} threads.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -6,9 +6,14 @@ import com.example.login.dto.LoginRequest;
 import com.example.login.dto.LoginResponse;
 import com.example.login.entity.User;
 import com.example.login.exception.AuthenticationException;
+import com.example.login.exception.ServiceBusyException;
 import com.example.login.repository.UserRepository;
 import com.example.login.service.JwtService;
+import com.example.login.service.LoginAuditService;
 import com.example.login.service.PasswordService;
+import com.example.login.service.TokenEpochService;
+import com.example.login.service.UserAuthzCache;
+import com.example.login.service.UserIdentifierFilter;
 import com.example.login.service.UserLookupService;
 import com.example.login.util.PasswordHashUtil.PasswordHashResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +27,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -44,6 +50,10 @@ public class AuthController {
     private final JwtService jwtService;
     private final PasswordService passwordService;
     private final UserRepository userRepository;
+    private final TokenEpochService tokenEpochService;
+    private final LoginAuditService loginAuditService;
+    private final UserIdentifierFilter userIdentifierFilter;
+    private final UserAuthzCache userAuthzCache;
 
     @GetMapping("/login")
     @Operation(summary = "Get login information", description = "Returns information about how to authenticate with the API")
@@ -62,25 +72,20 @@ public class AuthController {
         @ApiResponse(responseCode = "400", description = "Invalid request data",
             content = @Content(schema = @Schema(implementation = Map.class))),
         @ApiResponse(responseCode = "401", description = "Authentication failed",
+            content = @Content(schema = @Schema(implementation = LoginResponse.class))),
+        @ApiResponse(responseCode = "503", description = "Too many concurrent logins, retry later",
             content = @Content(schema = @Schema(implementation = LoginResponse.class)))
     })
     public ResponseEntity<LoginResponse> loginPost(@Valid @RequestBody LoginRequest loginRequest) {
         try {
             log.info("Login attempt for: {}", loginRequest.getUsernameOrEmail());
             
-            // Try to authenticate by username first, then by email
-            Optional<User> userOpt = userLookupService.authenticateByUsername(
+            // Resolve the username or email in one lookup and verify the password once
+            Optional<User> userOpt = userLookupService.authenticate(
                 loginRequest.getUsernameOrEmail(), 
                 loginRequest.getPassword()
             );
             
-            if (userOpt.isEmpty()) {
-                userOpt = userLookupService.authenticateByEmail(
-                    loginRequest.getUsernameOrEmail(), 
-                    loginRequest.getPassword()
-                );
-            }
-            
             if (userOpt.isEmpty()) {
                 log.warn("Authentication failed for: {}", loginRequest.getUsernameOrEmail());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -89,19 +94,24 @@ public class AuthController {
             
             User user = userOpt.get();
             
-            // Get user roles and client IDs for JWT
-            List<String> roles = userLookupService.getUserRoles(user);
-            List<Long> clientIds = userLookupService.getUserClientIds(user);
+            // Get user roles and client IDs for JWT in one query
+            UserLookupService.LoginClaims claims = userLookupService.getLoginClaims(user);
+            List<String> roles = claims.roles();
+            List<Long> clientIds = claims.clientIds();
             
             // Generate JWT token
             String jwtToken = jwtService.generateToken(user, roles, clientIds);
             
-            // Update last login timestamp
+            // Update last login timestamp and audit trail in the background
             userLookupService.updateLastLogin(user);
+            loginAuditService.recordLogin(user.getId());
             
             log.info("Login successful for user: {} with roles: {}", user.getUsername(), roles);
             return ResponseEntity.ok(LoginResponse.success(user, jwtToken));
             
+        } catch (ServiceBusyException e) {
+            log.warn("Login rejected for {}: {}", loginRequest.getUsernameOrEmail(), e.getMessage());
+            return serviceBusy(e).body(LoginResponse.failure("Too many login attempts in progress, please retry later"));
         } catch (Exception e) {
             log.error("Error during login for: {}", loginRequest.getUsernameOrEmail(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -122,7 +132,8 @@ public class AuthController {
         
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
-            jwtService.blacklistToken(jwt);
+            jwtService.blacklistToken(jwt)
+                .ifPresent(verifiedToken -> loginAuditService.recordLogout(verifiedToken.getUserId()));
             log.info("JWT token invalidated for logout");
         }
         
@@ -193,7 +204,8 @@ public class AuthController {
         @ApiResponse(responseCode = "200", description = "Password validation result",
             content = @Content(schema = @Schema(implementation = Map.class))),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token"),
-        @ApiResponse(responseCode = "404", description = "User not found")
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "503", description = "Too many concurrent password checks, retry later")
     })
     public ResponseEntity<Map<String, Object>> validatePassword(
             @RequestParam String usernameOrEmail,
@@ -260,8 +272,11 @@ public class AuthController {
                     .body(Map.of("error", "Password does not meet security requirements. Must be at least 8 characters with uppercase, lowercase, digit, and special character", "field", "password"));
             }
             
-            // Generate password hash using PasswordService
-            User.PasswordType passwordType = createUserRequest.getPasswordTypeEnum();
+            // Generate password hash using PasswordService, defaulting to the target policy
+            String requestedType = createUserRequest.getPasswordType();
+            User.PasswordType passwordType = requestedType == null || requestedType.trim().isEmpty()
+                ? passwordService.getDefaultPasswordType()
+                : createUserRequest.getPasswordTypeEnum();
             PasswordHashResult hashResult = passwordService.generateHash(passwordType, createUserRequest.getPassword());
             
             // Create new user entity
@@ -278,6 +293,7 @@ public class AuthController {
             
             // Save user to database
             User savedUser = userRepository.save(newUser);
+            userIdentifierFilter.add(savedUser.getUsername(), savedUser.getEmail());
             
             // Clear sensitive data before returning
             savedUser.setPasswordHash(null);
@@ -373,12 +389,20 @@ public class AuthController {
             // Save updated user
             userRepository.save(user);
 
+            userAuthzCache.invalidate(user.getId());
+
+            // Log the user out everywhere: tokens issued before the change are no longer accepted
+            tokenEpochService.revokeAll(user.getId());
+
             log.info("Password changed successfully for user: {}", username);
             return ResponseEntity.ok(Map.of(
                 "message", "Password changed successfully",
                 "username", username
             ));
 
+        } catch (ServiceBusyException e) {
+            log.warn("Password change rejected: {}", e.getMessage());
+            return serviceBusy(e).body(Map.of("error", "Too many password checks in progress, please retry later"));
         } catch (IllegalArgumentException e) {
             log.error("Invalid request data for password change: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -389,4 +413,15 @@ public class AuthController {
                 .body(Map.of("error", "An error occurred while changing the password"));
         }
     }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, String>> handleServiceBusy(ServiceBusyException e) {
+        log.warn("Request rejected: {}", e.getMessage());
+        return serviceBusy(e).body(Map.of("error", "Service is busy, please retry later"));
+    }
+
+    private static ResponseEntity.BodyBuilder serviceBusy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    }
 }
@@ -0,0 +1,32 @@
+package com.example.login.controller;
+
+import com.example.login.config.JwtConfig;
+import com.example.login.security.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@Tag(name = "Authentication", description = "Authentication and logout endpoints")
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+    private final JwtConfig jwtConfig;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/jwk-set+json")
+    @Operation(summary = "Get token verification keys",
+               description = "Returns the public keys tokens are signed with as a JWK set, for verifying tokens offline")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwtConfig.getSigning().getJwksMaxAge())).cachePublic())
+                .body(keyRing.jwks());
+    }
+}
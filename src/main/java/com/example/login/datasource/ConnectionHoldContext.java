@@ -0,0 +1,61 @@
+package com.example.login.datasource;
+
+/**
+ * Names the code on the current thread that is about to take a JDBC connection,
+ * so {@link ConnectionHoldTimingDataSource} can attribute hold time to it. The
+ * endpoint is set per request by {@link ConnectionHoldHandlerInterceptor}; the
+ * repository by {@link ConnectionHoldRepositoryInterceptor} for the outermost
+ * repository call.
+ */
+public final class ConnectionHoldContext {
+
+    static final String NONE = "none";
+
+    private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+    private static final ThreadLocal<String> REPOSITORY = new ThreadLocal<>();
+
+    private ConnectionHoldContext() {
+    }
+
+    /**
+     * @return the controller method handling the current request, or {@code none}
+     */
+    public static String endpoint() {
+        String endpoint = ENDPOINT.get();
+        return endpoint != null ? endpoint : NONE;
+    }
+
+    /**
+     * @return the outermost repository method running on this thread, or {@code none}
+     */
+    public static String repository() {
+        String repository = REPOSITORY.get();
+        return repository != null ? repository : NONE;
+    }
+
+    static void setEndpoint(String endpoint) {
+        ENDPOINT.set(endpoint);
+    }
+
+    static void clearEndpoint() {
+        ENDPOINT.remove();
+    }
+
+    /**
+     * Set the repository unless an outer repository call already did.
+     *
+     * @param repository the repository method
+     * @return whether the caller set it and must clear it
+     */
+    static boolean enterRepository(String repository) {
+        if (REPOSITORY.get() != null) {
+            return false;
+        }
+        REPOSITORY.set(repository);
+        return true;
+    }
+
+    static void clearRepository() {
+        REPOSITORY.remove();
+    }
+}
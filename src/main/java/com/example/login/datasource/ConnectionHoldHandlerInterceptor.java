@@ -0,0 +1,33 @@
+package com.example.login.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Tags connections taken while handling a request with the controller method,
+ * e.g. {@code AuthController.login}. Spring Data REST requests carry the generic
+ * {@code RepositoryEntityController} methods; their repository tag tells them apart.
+ */
+public class ConnectionHoldHandlerInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ConnectionHoldContext.setEndpoint(endpointName(handler));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ConnectionHoldContext.clearEndpoint();
+    }
+
+    static String endpointName(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return handler.getClass().getSimpleName();
+    }
+}
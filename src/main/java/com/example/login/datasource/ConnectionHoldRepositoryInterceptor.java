@@ -0,0 +1,30 @@
+package com.example.login.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Tags connections taken during a repository call with the repository method,
+ * e.g. {@code UserRepository.findAll}. Added to every Spring Data repository proxy.
+ */
+public class ConnectionHoldRepositoryInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+
+    public ConnectionHoldRepositoryInterceptor(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        boolean outermost = ConnectionHoldContext.enterRepository(
+                repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            if (outermost) {
+                ConnectionHoldContext.clearRepository();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.login.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each connection is held, from {@code getConnection} to
+ * {@code close}, as {@code db.connection.hold} tagged with the endpoint and
+ * repository from {@link ConnectionHoldContext} at the time it was taken.
+ * Sort by total time to find the code that starves the pool.
+ */
+public class ConnectionHoldTimingDataSource extends DelegatingDataSource {
+
+    private final MeterRegistry meterRegistry;
+    // endpoint -> repository -> timer, so recording a hold allocates nothing once seen
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    public ConnectionHoldTimingDataSource(DataSource targetDataSource, MeterRegistry meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    Timer timer(String endpoint, String repository) {
+        return timers.computeIfAbsent(endpoint, e -> new ConcurrentHashMap<>())
+                .computeIfAbsent(repository, r -> Timer.builder("db.connection.hold")
+                        .description("Time a JDBC connection was held before being returned to the pool")
+                        .tag("endpoint", endpoint)
+                        .tag("repository", repository)
+                        .register(meterRegistry));
+    }
+
+    private Connection timed(Connection connection) {
+        Timer timer = timer(ConnectionHoldContext.endpoint(), ConnectionHoldContext.repository());
+        return (Connection) Proxy.newProxyInstance(ConnectionHoldTimingDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new HoldTimer(connection, timer));
+    }
+
+    private static final class HoldTimer implements InvocationHandler {
+
+        private final Connection target;
+        private final Timer timer;
+        private final long start = System.nanoTime();
+
+        private boolean closed;
+
+        HoldTimer(Connection target, Timer timer) {
+            this.target = target;
+            this.timer = timer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals(method.getName()) && !closed) {
+                closed = true;
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
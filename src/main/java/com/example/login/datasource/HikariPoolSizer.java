@@ -0,0 +1,40 @@
+package com.example.login.datasource;
+
+import com.example.login.config.LoginConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Sizes Hikari pools that have no {@code maximum-pool-size} of their own with
+ * HikariCP's pool sizing formula, {@code cores * connections-per-core + effective-spindle-count}.
+ * Runs after {@code spring.datasource.hikari.*} is bound, so an explicit size wins.
+ */
+@Slf4j
+public class HikariPoolSizer implements BeanPostProcessor {
+
+    private final LoginConfig.ConnectionPoolProperties properties;
+
+    public HikariPoolSizer(LoginConfig.ConnectionPoolProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource && dataSource.getMaximumPoolSize() < 1) {
+            int size = poolSize(properties, Runtime.getRuntime().availableProcessors());
+            dataSource.setMaximumPoolSize(size);
+            log.info("Sized connection pool {} to {} connections", beanName, size);
+        }
+        return bean;
+    }
+
+    /**
+     * @param properties the pool settings
+     * @param cores      the available processors
+     * @return the pool size for this host
+     */
+    public static int poolSize(LoginConfig.ConnectionPoolProperties properties, int cores) {
+        return Math.max(1, cores * properties.getConnectionsPerCore() + properties.getEffectiveSpindleCount());
+    }
+}
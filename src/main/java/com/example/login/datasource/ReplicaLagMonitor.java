@@ -0,0 +1,116 @@
+package com.example.login.datasource;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.datasource.ReplicaRoutingDataSource.Replica;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the replication lag of every replica and takes replicas that trail
+ * the primary by more than {@code login.read-replicas.max-lag} seconds, have
+ * replication stopped, or cannot be reached out of rotation until they catch up.
+ * Probes run on their own threads and a replica that does not answer within
+ * {@code login.read-replicas.probe-timeout} counts as unreachable, so a dead
+ * replica never holds up the scheduler thread shared with other background jobs.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final LoginConfig.ReadReplicaProperties properties;
+    private final ExecutorService probes;
+    // At most one probe per replica; a probe still stuck in getConnection is not stacked on
+    private final Map<Replica, Future<Long>> inFlight = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, LoginConfig loginConfig) {
+        this.routingDataSource = routingDataSource;
+        this.properties = loginConfig.getReadReplicas();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.probes = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-probe-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Check every replica once. Runs at startup, so replicas only receive reads
+     * after their first successful check.
+     */
+    @Scheduled(fixedDelayString = "${login.read-replicas.lag-check-interval:5000}")
+    public void check() {
+        Map<Replica, Future<Long>> started = new LinkedHashMap<>();
+        for (Replica replica : routingDataSource.getReplicas()) {
+            Future<Long> previous = inFlight.get(replica);
+            if (previous != null && !previous.isDone()) {
+                log.warn("Replica {} is still not answering the previous lag check", replica.getName());
+                replica.update(null, false);
+                continue;
+            }
+            Future<Long> probe = probes.submit(() -> lagOf(replica));
+            inFlight.put(replica, probe);
+            started.put(replica, probe);
+        }
+        // Probes run in parallel, so the whole check waits one probe timeout at most
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getProbeTimeout());
+        for (Map.Entry<Replica, Future<Long>> entry : started.entrySet()) {
+            Long lag = await(entry.getKey(), entry.getValue(), deadline);
+            entry.getKey().update(lag, lag != null && lag <= properties.getMaxLag());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        probes.shutdownNow();
+    }
+
+    private Long await(Replica replica, Future<Long> probe, long deadline) {
+        try {
+            return probe.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Replica {} did not answer the lag check within {} ms",
+                    replica.getName(), properties.getProbeTimeout());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Failed to check replication lag of {}: {}", replica.getName(), e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private Long lagOf(Replica replica) {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(properties.getProbeTimeout())));
+            try (ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+                if (!rs.next()) {
+                    log.warn("Replica {} reports no replication status", replica.getName());
+                    return null;
+                }
+                long lag = rs.getLong(properties.getLagColumn());
+                // NULL while the replication threads are stopped
+                return rs.wasNull() ? null : lag;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to check replication lag of {}: {}", replica.getName(), e.getMessage());
+            return null;
+        }
+    }
+}
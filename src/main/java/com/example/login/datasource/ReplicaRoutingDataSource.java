@@ -0,0 +1,149 @@
+package com.example.login.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a healthy replica, round-robin,
+ * and every other connection to the primary. A replica is only used once
+ * {@link ReplicaLagMonitor} has seen it within the configured lag; when none
+ * qualifies, reads fall back to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * connection is obtained after the transaction's read-only flag is set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+                                    MeterRegistry meterRegistry) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        List<Replica> list = new ArrayList<>();
+        replicaDataSources.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            targets.put(name, dataSource);
+            list.add(replica);
+            Gauge.builder("datasource.replica.lag", replica, Replica::getLagSeconds)
+                    .description("Seconds the replica trails the primary, as last measured")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Whether the replica currently receives read-only transactions")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        this.replicas = List.copyOf(list);
+        this.fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only transactions sent to the primary because no replica was healthy")
+                .register(meterRegistry);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * @return the configured replicas, in configuration order
+     */
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Close the replica pools; the primary is a bean of its own and closed by the context.
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool {}: {}", replica.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * One replica and its last measured replication lag.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public double getLagSeconds() {
+            return lagSeconds;
+        }
+
+        /**
+         * Record a lag measurement.
+         *
+         * @param lagSeconds seconds behind the primary, or {@code null} if unknown
+         * @param healthy    whether the replica may receive read-only transactions
+         */
+        void update(Long lagSeconds, boolean healthy) {
+            this.lagSeconds = lagSeconds == null ? Double.NaN : lagSeconds;
+            if (this.healthy != healthy) {
+                log.info("Replica {} {} read-only transactions (lag: {}s)",
+                        name, healthy ? "now receives" : "no longer receives", lagSeconds);
+            }
+            this.healthy = healthy;
+        }
+    }
+}
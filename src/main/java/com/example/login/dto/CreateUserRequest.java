@@ -47,7 +47,7 @@ public class CreateUserRequest {
     @Schema(description = "ID of the client this user belongs to", example = "1")
     private Long idClient;
 
-    @Schema(description = "Password hashing algorithm type", example = "BCRYPT", allowableValues = {"BCRYPT", "SHA256", "MD5", "SHA512"})
+    @Schema(description = "Password hashing algorithm type", example = "BCRYPT", allowableValues = {"BCRYPT", "SHA256", "MD5", "SHA512", "ARGON2ID", "PBKDF2"})
     private String passwordType;
 
     @Schema(description = "Initial status of the user account", example = "ACTIVE", allowableValues = {"ACTIVE", "INACTIVE", "SUSPENDED"})
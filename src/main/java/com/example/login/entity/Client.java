@@ -2,6 +2,8 @@ package com.example.login.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -11,6 +13,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clients")
 @Table(name = "clients")
 @Data
 @NoArgsConstructor
@@ -50,6 +54,7 @@ public class Client {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "client", "loginLogs", "userRoles"})
     private List<User> users;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "client-client-roles")
     @OneToMany(mappedBy = "client", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "client", "role", "userRoles"})
     private List<ClientRole> clientRoles;
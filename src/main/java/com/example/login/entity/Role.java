@@ -2,6 +2,8 @@ package com.example.login.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,6 +12,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
 @Table(name = "roles")
 @Data
 @NoArgsConstructor
@@ -40,6 +44,7 @@ public class Role {
     @Column(name = "date_updated", nullable = false)
     private LocalDateTime dateUpdated;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role-client-roles")
     @OneToMany(mappedBy = "role", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<ClientRole> clientRoles;
 
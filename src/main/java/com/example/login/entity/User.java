@@ -50,9 +50,9 @@ public class User {
     private String passwordSalt;
 
     @Enumerated(EnumType.STRING)
-    @Column(name = "password_type", nullable = false, columnDefinition = "enum('BCRYPT','SHA256','MD5','SHA512') default 'MD5'")
+    @Column(name = "password_type", nullable = false, columnDefinition = "enum('BCRYPT','SHA256','MD5','SHA512','ARGON2ID','PBKDF2') default 'MD5'")
     @Builder.Default
-    @Schema(description = "Type of password hashing algorithm used", example = "BCRYPT", allowableValues = {"BCRYPT", "SHA256", "MD5", "SHA512"})
+    @Schema(description = "Type of password hashing algorithm used", example = "ARGON2ID", allowableValues = {"BCRYPT", "SHA256", "MD5", "SHA512", "ARGON2ID", "PBKDF2"})
     private PasswordType passwordType = PasswordType.MD5;
 
     @Column(name = "name", length = 128, nullable = false)
@@ -69,6 +69,11 @@ public class User {
     @Schema(description = "Current status of the user account", example = "ACTIVE", allowableValues = {"ACTIVE", "INACTIVE", "SUSPENDED"})
     private UserStatus status = UserStatus.ACTIVE;
 
+    @Column(name = "token_epoch", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0 not null")
+    @Builder.Default
+    @Schema(description = "Session epoch; tokens issued under an older epoch are rejected", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long tokenEpoch = 0L;
+
     @Column(name = "date_last_login")
     @Schema(description = "Timestamp of the user's last login", example = "2023-10-15T10:30:00")
     private LocalDateTime dateLastLogin;
@@ -93,7 +98,7 @@ public class User {
 
     // Enums
     public enum PasswordType {
-        BCRYPT, SHA256, MD5, SHA512;
+        BCRYPT, SHA256, MD5, SHA512, ARGON2ID, PBKDF2;
         
         /**
          * Get PasswordType from string (case-insensitive)
@@ -127,5 +132,6 @@ public class User {
         this.email = email;
         this.passwordType = PasswordType.MD5; // Set default value
         this.status = UserStatus.ACTIVE; // Set default value
+        this.tokenEpoch = 0L; // Set default value
     }
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.example.login.repository;
 
 import com.example.login.entity.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
@@ -17,14 +22,21 @@ import java.util.Optional;
 @Tag(name = "Clients", description = "Client management operations")
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
+    // Listing /api/clients goes through the query cache as well
+    @Override
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), forCounting = true)
+    Page<Client> findAll(Pageable pageable);
+
     // Find client by external ID
     @RestResource(path = "by-external-id", rel = "by-external-id")
     @Operation(summary = "Find client by external ID", description = "Retrieves a client by its external identifier")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Client> findByExternalId(@Parameter(description = "External ID of the client") @Param("externalId") String externalId);
 
     // Find client by name
     @RestResource(path = "by-name", rel = "by-name")
     @Operation(summary = "Find client by name", description = "Retrieves a client by its exact name")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Client> findByName(@Parameter(description = "Name of the client") @Param("name") String name);
 
     // Find clients by name containing (case insensitive)
@@ -1,8 +1,11 @@
 package com.example.login.repository;
 
 import com.example.login.entity.ClientRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
@@ -19,11 +22,13 @@ public interface ClientRoleRepository extends JpaRepository<ClientRole, ClientRo
     // Find client roles by client ID
     @RestResource(path = "by-client", rel = "by-client")
     @Operation(summary = "Find client roles by client ID", description = "Retrieves all roles associated with a specific client")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ClientRole> findByIdClient(@Parameter(description = "ID of the client") @Param("idClient") Long idClient);
 
     // Find client roles by role ID
     @RestResource(path = "by-role", rel = "by-role")
     @Operation(summary = "Find client roles by role ID", description = "Retrieves all clients associated with a specific role")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ClientRole> findByIdRole(@Parameter(description = "ID of the role") @Param("idRole") Long idRole);
 
     // Count roles for a client
@@ -1,7 +1,12 @@
 package com.example.login.repository;
 
 import com.example.login.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.data.rest.core.annotation.RestResource;
@@ -16,14 +21,21 @@ import java.util.Optional;
 @Tag(name = "Roles", description = "Role management operations")
 public interface RoleRepository extends JpaRepository<Role, Long> {
 
+    // Listing /api/roles goes through the query cache as well
+    @Override
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), forCounting = true)
+    Page<Role> findAll(Pageable pageable);
+
     // Find role by description
     @RestResource(path = "by-description", rel = "by-description")
     @Operation(summary = "Find role by description", description = "Retrieves a role by its exact description")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByDescription(@Parameter(description = "Description of the role") @Param("description") String description);
 
     // Find roles by internal flag
     @RestResource(path = "by-internal", rel = "by-internal")
     @Operation(summary = "Find roles by internal flag", description = "Retrieves roles filtered by internal/external status")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Role> findByInternal(@Parameter(description = "Whether to find internal (true) or external (false) roles") @Param("internal") Boolean internal);
 
     // Find roles by description containing (case insensitive)
@@ -34,11 +46,13 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     // Find external roles (not internal)
     @RestResource(path = "external", rel = "external")
     @Operation(summary = "Find external roles", description = "Retrieves all external roles (not internal) ordered by description")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Role> findByInternalFalseOrderByDescriptionAsc();
 
     // Find internal roles
     @RestResource(path = "internal", rel = "internal")
     @Operation(summary = "Find internal roles", description = "Retrieves all internal roles ordered by description")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Role> findByInternalTrueOrderByDescriptionAsc();
 
     // Check if description exists
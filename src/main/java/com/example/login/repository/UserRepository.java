@@ -4,6 +4,7 @@ import com.example.login.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +29,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @RestResource(path = "by-email", rel = "by-email")
     Optional<User> findByEmail(@Param("email") String email);
 
+    // Resolve a login identifier against both unique keys (username, email) in one query
+    @Query("SELECT u FROM User u WHERE u.username = :identifier OR u.email = :identifier")
+    @RestResource(exported = false)
+    List<User> findByUsernameOrEmail(@Param("identifier") String identifier);
+
     // Find users by client ID
     @RestResource(path = "by-client", rel = "by-client")
     List<User> findByIdClient(@Param("idClient") Long idClient);
@@ -79,4 +86,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT DISTINCT u FROM User u JOIN u.userRoles ur JOIN ur.clientRole cr JOIN cr.role r WHERE r.description = :roleDescription")
     @RestResource(path = "by-role", rel = "by-role")
     List<User> findUsersByRoleDescription(@Param("roleDescription") String roleDescription);
+
+    // Bump the token epoch, revoking every token issued under the previous one
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1, u.dateUpdated = CURRENT_TIMESTAMP WHERE u.id = :id")
+    @RestResource(exported = false)
+    int incrementTokenEpoch(@Param("id") Long id);
+
+    // Read the current token epoch of a user
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :id")
+    @RestResource(exported = false)
+    Optional<Long> findTokenEpochById(@Param("id") Long id);
+
+    // Find (id, tokenEpoch, dateUpdated) rows for users whose sessions have been revoked at least once
+    @Query("SELECT u.id, u.tokenEpoch, u.dateUpdated FROM User u WHERE u.tokenEpoch > 0")
+    @RestResource(exported = false)
+    List<Object[]> findRevokedTokenEpochs();
+
+    // Find (id, tokenEpoch, dateUpdated) rows for revoked users changed since the given time
+    @Query("SELECT u.id, u.tokenEpoch, u.dateUpdated FROM User u WHERE u.tokenEpoch > 0 AND u.dateUpdated >= :since")
+    @RestResource(exported = false)
+    List<Object[]> findTokenEpochsUpdatedSince(@Param("since") LocalDateTime since);
 }
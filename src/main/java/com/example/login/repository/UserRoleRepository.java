@@ -50,4 +50,18 @@ public interface UserRoleRepository extends JpaRepository<UserRole, UserRole.Use
     // Check if user has specific role in specific client
     @Operation(summary = "Check if user has specific role in client", description = "Verifies if a specific user has a specific role within a specific client")
     boolean existsByIdUserAndIdClientAndIdRole(@Parameter(description = "ID of the user") Long idUser, @Parameter(description = "ID of the client") Long idClient, @Parameter(description = "ID of the role") Long idRole);
+
+    // Find (role description, client ID) pairs for a user in one join, for building token claims
+    @Query("SELECT r.description AS role, ur.idClient AS idClient FROM UserRole ur " +
+           "JOIN ur.clientRole cr JOIN cr.role r WHERE ur.idUser = :idUser")
+    @RestResource(exported = false)
+    List<RoleClientClaim> findRoleClientClaimsByIdUser(@Param("idUser") Long idUser);
+
+    /**
+     * Projection of a user's role assignment onto the values carried in the JWT.
+     */
+    interface RoleClientClaim {
+        String getRole();
+        Long getIdClient();
+    }
 }
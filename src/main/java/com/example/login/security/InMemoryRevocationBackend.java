@@ -0,0 +1,52 @@
+package com.example.login.security;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-JVM {@link RevocationBackend} for tests and single-node deployments
+ * ({@code jwt.revocation.backend=memory}).
+ */
+public class InMemoryRevocationBackend implements RevocationBackend {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, RevocationRecord> feed = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<TokenKey, RevocationRecord> byKey = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(TokenKey key, long expiresAtMillis) {
+        byKey.computeIfAbsent(key, k -> {
+            RevocationRecord record = new RevocationRecord(sequence.incrementAndGet(), k, expiresAtMillis);
+            feed.put(record.sequence(), record);
+            return record;
+        });
+    }
+
+    @Override
+    public boolean isRevoked(TokenKey key, long nowMillis) {
+        RevocationRecord record = byKey.get(key);
+        return record != null && record.expiresAtMillis() > nowMillis;
+    }
+
+    @Override
+    public List<RevocationRecord> fetchSince(long afterSequence, long nowMillis, int limit) {
+        return feed.tailMap(afterSequence, false).values().stream()
+                .filter(record -> record.expiresAtMillis() > nowMillis)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public int purgeExpired(long nowMillis) {
+        int removed = 0;
+        for (RevocationRecord record : feed.values()) {
+            if (record.expiresAtMillis() <= nowMillis && feed.remove(record.sequence(), record)) {
+                byKey.remove(record.key(), record);
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.login.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * {@link RevocationBackend} stored in the {@code revoked_tokens} table of the
+ * application datasource, shared by every node ({@code jwt.revocation.backend=jdbc}).
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcRevocationBackend implements RevocationBackend {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void revoke(TokenKey key, long expiresAtMillis) {
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO revoked_tokens (token_hi, token_lo, expires_at_ms) VALUES (?, ?, ?)",
+                key.high(), key.low(), expiresAtMillis);
+        } catch (DuplicateKeyException e) {
+            log.debug("Token already revoked");
+        }
+    }
+
+    @Override
+    public boolean isRevoked(TokenKey key, long nowMillis) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM revoked_tokens WHERE token_hi = ? AND token_lo = ? AND expires_at_ms > ?",
+            Integer.class, key.high(), key.low(), nowMillis);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public List<RevocationRecord> fetchSince(long afterSequence, long nowMillis, int limit) {
+        return jdbcTemplate.query(
+            "SELECT id, token_hi, token_lo, expires_at_ms FROM revoked_tokens "
+                + "WHERE id > ? AND expires_at_ms > ? ORDER BY id LIMIT ?",
+            (rs, rowNum) -> new RevocationRecord(
+                rs.getLong("id"),
+                new TokenKey(rs.getLong("token_hi"), rs.getLong("token_lo")),
+                rs.getLong("expires_at_ms")),
+            afterSequence, nowMillis, limit);
+    }
+
+    @Override
+    public int purgeExpired(long nowMillis) {
+        return jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at_ms <= ?", nowMillis);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.login.security;
 
 import com.example.login.service.JwtService;
+import com.example.login.service.TokenEpochService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -16,7 +17,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +24,8 @@ import java.util.stream.Collectors;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final TokenEpochService tokenEpochService;
+    private final RoleAuthorityTable roleAuthorityTable;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -54,14 +56,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             jwt = authHeader.substring(7);
-            username = jwtService.extractUsername(jwt);
+            // Verify the signature and parse the claims once for the whole request
+            VerifiedToken verifiedToken = jwtService.verifyToken(jwt);
+            username = verifiedToken.getUsername();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.validateToken(jwt, username)) {
-                    List<String> roles = jwtService.extractRoles(jwt);
-                    List<SimpleGrantedAuthority> authorities = roles.stream()
-                            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.replace("ROLE_", "")))
-                            .collect(Collectors.toList());
+                if (jwtService.validateToken(verifiedToken, username) && isEpochCurrent(verifiedToken)) {
+                    // Shared, precomputed authorities: nothing is allocated for a known set of roles
+                    List<GrantedAuthority> authorities = roleAuthorityTable.authoritiesFor(verifiedToken.getRoles());
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             username, null, authorities);
@@ -98,6 +100,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private boolean isEpochCurrent(VerifiedToken verifiedToken) {
+        // Tokens issued before epochs were introduced carry no user ID and cannot be checked
+        Long userId = verifiedToken.getUserId();
+        return userId == null || tokenEpochService.isCurrent(userId, verifiedToken.getEpoch());
+    }
+
     private boolean isProtectedEndpoint(String requestPath) {
         // Check if the path is a protected API endpoint
         return requestPath.startsWith("/api/") && 
@@ -0,0 +1,371 @@
+package com.example.login.security;
+
+import com.example.login.config.JwtConfig;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Signing and verification keys indexed by {@code kid}, selected by {@code jwt.signing.algorithm}.
+ * <p>
+ * New tokens are signed with the current key and carry its {@code kid}; the parser
+ * resolves the verification key from that header with one map lookup. Every
+ * {@code jwt.signing.rotation-period} a new signing key takes over, while older keys
+ * stay in the ring until the last token they signed has expired, so rotation never
+ * invalidates live tokens.
+ * <p>
+ * HS512 keys are derived from {@code jwt.secret} and the rotation period number, so
+ * every node derives the same ring without coordination. Their key IDs carry a
+ * fingerprint of the secret, so after {@code jwt.secret} is replaced the former
+ * secrets listed in {@code jwt.signing.previous-secrets} keep verifying the tokens
+ * they signed; remove them once those tokens have expired. ES256 and EdDSA use the
+ * configured key pair, or rotate generated key pairs when none is configured; their
+ * public keys are published as a JWK set so other services can verify tokens
+ * without calling this one. HS512 tokens without a {@code kid}, issued before key
+ * IDs were introduced, are verified with {@code jwt.secret}; with ES256 or EdDSA
+ * they are rejected unless {@code jwt.signing.legacy-tokens-until} is still ahead,
+ * since {@code jwt.secret} would otherwise keep minting valid tokens.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private static final String HMAC_KEY_ID_PREFIX = "hs512-";
+
+    private final SecretKey secretKey;
+    private final List<SecretKey> previousSecretKeys;
+    private final SecureDigestAlgorithm<Key, ?> algorithm;
+    private final long rotationPeriod;
+    private final long tokenLifetime;
+    private final KeyPair configuredKeyPair;
+    private final Instant legacyTokensUntil;
+
+    private volatile Ring ring;
+
+    public JwtKeyRing(JwtConfig jwtConfig, SecretKey secretKey) {
+        JwtConfig.SigningProperties properties = jwtConfig.getSigning();
+        this.secretKey = secretKey;
+        this.previousSecretKeys = properties.getPreviousSecrets().stream()
+                .map(previous -> Keys.hmacShaKeyFor(previous.getBytes(StandardCharsets.UTF_8)))
+                .toList();
+        this.algorithm = algorithmFor(properties.getAlgorithm());
+        this.tokenLifetime = jwtConfig.getExpiration();
+        this.configuredKeyPair = isHmac() ? null : loadKeyPair(properties);
+        this.legacyTokensUntil = isHmac() ? null : properties.getLegacyTokensUntil();
+        // A configured key pair is rotated by replacing the configuration
+        this.rotationPeriod = configuredKeyPair != null ? 0 : Math.max(0, properties.getRotationPeriod());
+        if (!isHmac() && configuredKeyPair == null) {
+            log.warn("No jwt.signing key pair configured, generating {} key pairs; "
+                    + "tokens will not survive a restart or verify on other nodes", algorithm.getId());
+        }
+        this.ring = initialRing(System.currentTimeMillis(), properties.getKeyId());
+        log.info("Signing tokens with {} key {}", algorithm.getId(), ring.current().keyId());
+    }
+
+    /**
+     * The key new tokens are signed with, rotating first if its period has ended.
+     *
+     * @return the current signing key
+     */
+    public SigningKey currentKey() {
+        Ring snapshot = ring;
+        if (rotationPeriod > 0 && periodOf(System.currentTimeMillis()) > snapshot.current().period()) {
+            rotate(System.currentTimeMillis());
+            snapshot = ring;
+        }
+        return snapshot.current();
+    }
+
+    /**
+     * @return the algorithm new tokens are signed with
+     */
+    public SecureDigestAlgorithm<Key, ?> algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Public verification keys as a JWK set ({@code {"keys": [...]}}).
+     * Empty when tokens are signed with keys derived from the shared secret, which are never published.
+     *
+     * @return the JWK set
+     */
+    public Map<String, Object> jwks() {
+        return ring.jwks();
+    }
+
+    /**
+     * @return the key IDs currently accepted for verification
+     */
+    public List<String> keyIds() {
+        return List.copyOf(ring.verificationKeys().keySet());
+    }
+
+    /**
+     * Switch to a new signing key once the current rotation period has ended.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-check-interval:60000}")
+    public void rotate() {
+        rotate(System.currentTimeMillis());
+    }
+
+    /**
+     * Bring the ring up to date for the given instant: install the signing key of the
+     * instant's rotation period and drop keys whose tokens have all expired.
+     *
+     * @param nowMillis the reference instant in epoch milliseconds
+     */
+    public synchronized void rotate(long nowMillis) {
+        if (rotationPeriod == 0) {
+            return;
+        }
+        long period = periodOf(nowMillis);
+        Ring current = ring;
+        if (period <= current.current().period()) {
+            return;
+        }
+        long oldestLivePeriod = oldestLivePeriod(nowMillis);
+        List<SigningKey> keys = new ArrayList<>();
+        for (SigningKey key : current.keys()) {
+            if (key.period() >= oldestLivePeriod && key.period() < period) {
+                keys.add(key);
+            }
+        }
+        SigningKey signingKey = keyFor(period, null);
+        keys.add(signingKey);
+        if (isHmac()) {
+            // Other nodes may rotate slightly earlier than this one
+            keys.add(keyFor(period + 1, null));
+            // Nodes not yet moved to the new jwt.secret keep signing with a previous one
+            for (SecretKey previous : previousSecretKeys) {
+                keys.add(hmacKey(previous, period));
+                keys.add(hmacKey(previous, period + 1));
+            }
+        }
+        ring = new Ring(signingKey, keys);
+        log.info("Rotated token signing key to {}, {} keys accepted for verification",
+                signingKey.keyId(), ring.verificationKeys().size());
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (Jwts.SIG.HS512.getId().equals(header.getAlgorithm()) && acceptsTokensWithoutKeyId()) {
+                return secretKey;
+            }
+            throw new SignatureException("Token has no signing key ID");
+        }
+        Key key = ring.verificationKeys().get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key ID: " + kid);
+        }
+        return key;
+    }
+
+    private Ring initialRing(long nowMillis, String configuredKeyId) {
+        if (configuredKeyPair != null || rotationPeriod == 0) {
+            SigningKey key = keyFor(0, configuredKeyId);
+            List<SigningKey> keys = new ArrayList<>(List.of(key));
+            if (isHmac()) {
+                previousSecretKeys.forEach(previous -> keys.add(hmacKey(previous, 0)));
+            }
+            return new Ring(key, keys);
+        }
+        long period = periodOf(nowMillis);
+        SigningKey signingKey = keyFor(period, null);
+        List<SigningKey> keys = new ArrayList<>();
+        if (isHmac()) {
+            // Derived keys of earlier periods may have signed tokens that are still live
+            for (long p = oldestLivePeriod(nowMillis); p < period; p++) {
+                keys.add(keyFor(p, null));
+            }
+            keys.add(keyFor(period + 1, null));
+            for (SecretKey previous : previousSecretKeys) {
+                for (long p = oldestLivePeriod(nowMillis); p <= period + 1; p++) {
+                    keys.add(hmacKey(previous, p));
+                }
+            }
+        }
+        keys.add(signingKey);
+        return new Ring(signingKey, keys);
+    }
+
+    private SigningKey keyFor(long period, String configuredKeyId) {
+        if (isHmac()) {
+            return hmacKey(secretKey, period);
+        }
+        KeyPair keyPair = configuredKeyPair != null ? configuredKeyPair : generateKeyPair();
+        PublicJwk<?> jwk = Jwks.builder()
+                .key(keyPair.getPublic())
+                .algorithm(algorithm.getId())
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+        String keyId = StringUtils.hasText(configuredKeyId) ? configuredKeyId : jwk.getId();
+        Map<String, Object> publicJwk = new LinkedHashMap<>(jwk);
+        publicJwk.put("kid", keyId);
+        return new SigningKey(keyId, period, keyPair.getPrivate(), keyPair.getPublic(), publicJwk);
+    }
+
+    private SigningKey hmacKey(SecretKey secret, long period) {
+        String keyId = HMAC_KEY_ID_PREFIX + fingerprint(secret);
+        if (rotationPeriod == 0) {
+            // Rotation disabled: sign with the secret itself, as verifiers holding jwt.secret expect
+            return new SigningKey(keyId, period, secret, secret, null);
+        }
+        SecretKey derived = deriveHmacKey(secret, period);
+        return new SigningKey(keyId + "-" + period, period, derived, derived, null);
+    }
+
+    private static SecretKey deriveHmacKey(SecretKey secret, long period) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(new SecretKeySpec(secret.getEncoded(), "HmacSHA512"));
+            return Keys.hmacShaKeyFor(mac.doFinal(("kid:" + period).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA512 is not available", e);
+        }
+    }
+
+    private static String fingerprint(SecretKey secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getEncoded());
+            // Identifies the secret without revealing it
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private KeyPair generateKeyPair() {
+        return isEcdsa() ? Jwts.SIG.ES256.keyPair().build() : Jwks.CRV.Ed25519.keyPair().build();
+    }
+
+    private long periodOf(long epochMillis) {
+        return rotationPeriod == 0 ? 0 : Math.floorDiv(epochMillis, rotationPeriod);
+    }
+
+    private long oldestLivePeriod(long nowMillis) {
+        // A key signs tokens until its period ends and they stay valid for one token lifetime
+        // after that; one extra period of slack covers clock skew between nodes
+        return periodOf(nowMillis - tokenLifetime) - 1;
+    }
+
+    private boolean acceptsTokensWithoutKeyId() {
+        return isHmac() || (legacyTokensUntil != null && Instant.now().isBefore(legacyTokensUntil));
+    }
+
+    private boolean isHmac() {
+        return Jwts.SIG.HS512.getId().equals(algorithm.getId());
+    }
+
+    private boolean isEcdsa() {
+        return Jwts.SIG.ES256.getId().equals(algorithm.getId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SecureDigestAlgorithm<Key, ?> algorithmFor(String name) {
+        SecureDigestAlgorithm<?, ?> algorithm = switch (name.toUpperCase(Locale.ROOT)) {
+            case "HS512" -> Jwts.SIG.HS512;
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EDDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + name);
+        };
+        return (SecureDigestAlgorithm<Key, ?>) algorithm;
+    }
+
+    private KeyPair loadKeyPair(JwtConfig.SigningProperties properties) {
+        if (!StringUtils.hasText(properties.getPrivateKey()) || !StringUtils.hasText(properties.getPublicKey())) {
+            return null;
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(isEcdsa() ? "EC" : "EdDSA");
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(properties.getPrivateKey())));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(properties.getPublicKey())));
+            return new KeyPair(publicKey, privateKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid jwt.signing key pair: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] decodePem(String pem) {
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    /**
+     * One key of the ring.
+     *
+     * @param keyId the {@code kid} header value
+     * @param period the rotation period the key signs in
+     * @param signingKey the key tokens are signed with
+     * @param verificationKey the key tokens are verified with
+     * @param jwk the public JWK, or null for HMAC keys
+     */
+    public record SigningKey(String keyId, long period, Key signingKey, Key verificationKey,
+                             Map<String, Object> jwk) {
+    }
+
+    /**
+     * Immutable snapshot of the ring, replaced as a whole on rotation.
+     */
+    private record Ring(SigningKey current, List<SigningKey> keys, Map<String, Key> verificationKeys,
+                        Map<String, Object> jwks) {
+
+        Ring(SigningKey current, List<SigningKey> keys) {
+            this(current, List.copyOf(keys), indexByKeyId(keys), toJwks(keys));
+        }
+
+        private static Map<String, Key> indexByKeyId(List<SigningKey> keys) {
+            Map<String, Key> index = new HashMap<>();
+            for (SigningKey key : keys) {
+                if (key.keyId() != null) {
+                    index.put(key.keyId(), key.verificationKey());
+                }
+            }
+            return Map.copyOf(index);
+        }
+
+        private static Map<String, Object> toJwks(List<SigningKey> keys) {
+            List<Map<String, Object>> published = new ArrayList<>();
+            for (SigningKey key : keys) {
+                if (key.jwk() != null) {
+                    published.add(key.jwk());
+                }
+            }
+            return Map.of("keys", List.copyOf(published));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.login.security;
+
+import java.util.List;
+
+/**
+ * Shared store of revoked tokens, visible to every node of the cluster.
+ * Records are exposed as an append-only feed ordered by sequence number so
+ * nodes can follow new revocations incrementally. Sequence numbers may become
+ * visible out of order, so followers re-read a window behind their cursor.
+ */
+public interface RevocationBackend {
+
+    /**
+     * Record a revocation. Revoking the same key twice is a no-op.
+     *
+     * @param key the token key
+     * @param expiresAtMillis the token expiration in epoch milliseconds
+     */
+    void revoke(TokenKey key, long expiresAtMillis);
+
+    /**
+     * Check whether a token is revoked and not yet expired.
+     *
+     * @param key the token key
+     * @param nowMillis the current time in epoch milliseconds
+     * @return true if the token is revoked
+     */
+    boolean isRevoked(TokenKey key, long nowMillis);
+
+    /**
+     * Fetch unexpired revocations recorded after the given sequence number.
+     *
+     * @param afterSequence the last sequence number already seen (0 for the beginning)
+     * @param nowMillis the current time in epoch milliseconds
+     * @param limit the maximum number of records to return
+     * @return the records in ascending sequence order
+     */
+    List<RevocationRecord> fetchSince(long afterSequence, long nowMillis, int limit);
+
+    /**
+     * Delete revocations whose tokens have expired.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the number of records deleted
+     */
+    int purgeExpired(long nowMillis);
+
+    /**
+     * A single revocation in the backend feed.
+     */
+    record RevocationRecord(long sequence, TokenKey key, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.login.security;
+
+import com.example.login.config.JwtConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that evicts expired revocations from the {@link TokenRevocationStore}.
+ * Each sweep drops expiry buckets in small batches and stops once its time budget
+ * is spent, leaving the rest for the next run so no single sweep causes a long pause.
+ */
+@Component
+@Slf4j
+public class RevocationSweeper {
+
+    private final TokenRevocationStore revocationStore;
+    private final JwtConfig.RevocationProperties properties;
+    private final Counter evictedCounter;
+    private final DistributionSummary evictionsPerSweep;
+    private final Timer sweepTimer;
+
+    public RevocationSweeper(TokenRevocationStore revocationStore, JwtConfig jwtConfig, MeterRegistry meterRegistry) {
+        this.revocationStore = revocationStore;
+        this.properties = jwtConfig.getRevocation();
+        Gauge.builder("jwt.revocations.size", revocationStore, TokenRevocationStore::size)
+                .description("Number of revoked tokens held in memory")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("jwt.revocations.evicted")
+                .description("Total number of expired revocations evicted")
+                .register(meterRegistry);
+        this.evictionsPerSweep = DistributionSummary.builder("jwt.revocations.sweep.evictions")
+                .description("Expired revocations evicted per sweep")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("jwt.revocations.sweep.duration")
+                .description("Time spent in a single revocation sweep")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Evict expired revocations in time-sliced batches.
+     *
+     * @return the number of revocations evicted by this sweep
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval:30000}")
+    public int sweep() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(properties.getSweepTimeBudget());
+        int evicted = 0;
+        int batch;
+        do {
+            batch = revocationStore.removeExpired(System.currentTimeMillis(), properties.getSweepBatchBuckets());
+            evicted += batch;
+        } while (batch > 0 && System.nanoTime() < deadline);
+
+        long elapsed = System.nanoTime() - start;
+        sweepTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        evictionsPerSweep.record(evicted);
+        evictedCounter.increment(evicted);
+        if (evicted > 0) {
+            log.debug("Revocation sweep evicted {} tokens in {} us, {} remain",
+                    evicted, TimeUnit.NANOSECONDS.toMicros(elapsed), revocationStore.size());
+        }
+        return evicted;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.login.security;
+
+import com.example.login.entity.Role;
+import com.example.login.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared {@link GrantedAuthority} instances for the role vocabulary in {@code roles}.
+ * Authorities are precomputed per role description, and the authority list of every
+ * distinct roles claim is built once and reused, so authenticating a request with
+ * a known set of roles allocates nothing here. Roles missing from the table, such
+ * as ones created on another node, are mapped on first sight and then reused too.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoleAuthorityTable {
+
+    static final int MAX_ROLE_SETS = 4096;
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final RoleRepository roleRepository;
+    private final ConcurrentMap<List<String>, List<GrantedAuthority>> roleSets = new ConcurrentHashMap<>();
+
+    private volatile Map<String, GrantedAuthority> authorities = Map.of();
+
+    /**
+     * Get the authorities for the roles claim of a token.
+     *
+     * @param roles the role descriptions, as carried in the token
+     * @return an immutable, shared list of authorities in the same order
+     */
+    public List<GrantedAuthority> authoritiesFor(List<String> roles) {
+        if (roles.isEmpty()) {
+            return List.of();
+        }
+        List<GrantedAuthority> shared = roleSets.get(roles);
+        if (shared != null) {
+            return shared;
+        }
+        GrantedAuthority[] built = new GrantedAuthority[roles.size()];
+        for (int i = 0; i < built.length; i++) {
+            built[i] = authorityFor(roles.get(i));
+        }
+        List<GrantedAuthority> list = List.of(built);
+        // Bounded in case tokens carry far more role combinations than expected
+        if (roleSets.size() < MAX_ROLE_SETS) {
+            shared = roleSets.putIfAbsent(List.copyOf(roles), list);
+        }
+        return shared != null ? shared : list;
+    }
+
+    /**
+     * Get the authority for a single role description.
+     *
+     * @param role the role description, with or without the {@code ROLE_} prefix
+     * @return the shared authority, or a new one if the role is not in the table
+     */
+    public GrantedAuthority authorityFor(String role) {
+        GrantedAuthority authority = authorities.get(role);
+        return authority != null ? authority : new SimpleGrantedAuthority(authorityName(role));
+    }
+
+    /**
+     * Reload the role vocabulary from {@code roles}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        try {
+            Map<String, GrantedAuthority> next = new HashMap<>();
+            for (Role role : roleRepository.findAll()) {
+                next.put(role.getDescription(), new SimpleGrantedAuthority(authorityName(role.getDescription())));
+            }
+            authorities = Map.copyOf(next);
+            roleSets.clear();
+            log.debug("Role authority table loaded with {} roles", next.size());
+        } catch (Exception e) {
+            log.warn("Failed to load role authority table: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of roles in the table
+     */
+    public int size() {
+        return authorities.size();
+    }
+
+    static String authorityName(String role) {
+        return ROLE_PREFIX + role.replace(ROLE_PREFIX, "");
+    }
+}
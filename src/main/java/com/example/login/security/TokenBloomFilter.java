@@ -0,0 +1,116 @@
+package com.example.login.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over {@link TokenKey}s. Keys are already uniformly
+ * distributed 128-bit values, so their two halves are used directly as the
+ * pair of hashes for double hashing and no further hashing is needed.
+ * Other data can be stored through the {@code (high, low)} overloads once it
+ * has been digested to a uniformly distributed 128-bit value.
+ * A negative answer is definitive; a positive answer may be a false positive.
+ */
+public final class TokenBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private TokenBloomFilter(long bitCount, int hashCount) {
+        int wordCount = (int) Math.max(1, (bitCount + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Create a filter sized for the expected number of keys and target false positive rate.
+     *
+     * @param expectedInsertions the number of keys the filter is expected to hold
+     * @param falsePositiveRate the target false positive probability, between 0 and 1
+     * @return an empty filter
+     */
+    public static TokenBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = Math.min(bits, (long) Integer.MAX_VALUE << 6);
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new TokenBloomFilter(bits, hashes);
+    }
+
+    /**
+     * Add a key to the filter.
+     *
+     * @param key the token key
+     */
+    public void add(TokenKey key) {
+        add(key.high(), key.low());
+    }
+
+    /**
+     * Add a 128-bit digest to the filter.
+     *
+     * @param high the upper 64 bits of the digest
+     * @param low the lower 64 bits of the digest
+     */
+    public void add(long high, long low) {
+        long h1 = high;
+        long h2 = low | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = words.get(word)) & mask) == 0
+                    && !words.compareAndSet(word, current, current | mask)) {
+                // retry until the bit is set by this or another thread
+            }
+        }
+    }
+
+    /**
+     * Check whether a key may have been added.
+     *
+     * @param key the token key
+     * @return false if the key was definitely never added
+     */
+    public boolean mightContain(TokenKey key) {
+        return mightContain(key.high(), key.low());
+    }
+
+    /**
+     * Check whether a 128-bit digest may have been added.
+     *
+     * @param high the upper 64 bits of the digest
+     * @param low the lower 64 bits of the digest
+     * @return false if the digest was definitely never added
+     */
+    public boolean mightContain(long high, long low) {
+        long h1 = high;
+        long h2 = low | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of bits in the filter
+     */
+    public long bitSize() {
+        return bitCount;
+    }
+
+    /**
+     * @return the number of hash functions applied per key
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.login.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fixed-size 128-bit key identifying a token without retaining the compact JWT string.
+ * Issued tokens carry a random key as their {@code jti} claim; tokens without one
+ * are identified by the first 16 bytes of the SHA-256 digest of the token.
+ */
+public record TokenKey(long high, long low) {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private static final int ID_BYTES = 16;
+
+    /**
+     * Generate a new random key for use as a token ID. Uses the calling thread's
+     * random generator, so concurrent logins never contend on a shared seed.
+     *
+     * @return a random 128-bit key
+     */
+    public static TokenKey random() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TokenKey(random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * Parse a token ID produced by {@link #toId()}. IDs in any other format are
+     * digested so that foreign {@code jti} values still map to a fixed-size key.
+     *
+     * @param id the {@code jti} claim value
+     * @return the key for the ID
+     */
+    public static TokenKey fromId(String id) {
+        if (id.length() == 22) {
+            try {
+                byte[] bytes = Base64.getUrlDecoder().decode(id);
+                if (bytes.length == ID_BYTES) {
+                    return new TokenKey(readLong(bytes, 0), readLong(bytes, 8));
+                }
+            } catch (IllegalArgumentException e) {
+                // not one of our IDs, fall through to the digest
+            }
+        }
+        return digest(id);
+    }
+
+    /**
+     * Encode this key as a compact, URL-safe token ID (22 characters).
+     *
+     * @return the {@code jti} claim value
+     */
+    public String toId() {
+        byte[] bytes = new byte[ID_BYTES];
+        writeLong(bytes, 0, high);
+        writeLong(bytes, 8, low);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Compute the key for a compact JWT.
+     *
+     * @param token the compact JWT string
+     * @return the 128-bit digest key
+     */
+    public static TokenKey digest(String token) {
+        MessageDigest digest = SHA_256.get();
+        byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return new TokenKey(readLong(hash, 0), readLong(hash, 8));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = offset + 7; i >= offset; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.login.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory set of revoked tokens, keyed by the fixed-size {@link TokenKey}
+ * and bucketed by the minute in which each token expires.
+ * A revoked token only has to be remembered until it expires, so whole buckets
+ * are dropped at once when their minute has passed instead of scanning every entry.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final long BUCKET_MILLIS = 60_000L;
+
+    private final ConcurrentSkipListMap<Long, Set<TokenKey>> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Revoke a token until its expiration.
+     *
+     * @param key the token key
+     * @param expiresAtMillis the token expiration in epoch milliseconds
+     */
+    public void revoke(TokenKey key, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        if (buckets.computeIfAbsent(bucketOf(expiresAtMillis), b -> ConcurrentHashMap.newKeySet()).add(key)) {
+            size.incrementAndGet();
+        }
+        // Opportunistically drop one expired bucket; RevocationSweeper handles the rest
+        removeExpired(now, 1);
+    }
+
+    /**
+     * Check whether a token has been revoked. Only the bucket of the token's
+     * own expiration minute is consulted.
+     *
+     * @param key the token key
+     * @param expiresAtMillis the token expiration in epoch milliseconds
+     * @return true if the token is revoked
+     */
+    public boolean isRevoked(TokenKey key, long expiresAtMillis) {
+        Set<TokenKey> bucket = buckets.get(bucketOf(expiresAtMillis));
+        return bucket != null && bucket.contains(key);
+    }
+
+    /**
+     * Drop buckets whose expiration minute has fully elapsed.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @param maxBuckets the maximum number of buckets to drop in this call
+     * @return the number of revocations removed
+     */
+    public int removeExpired(long nowMillis, int maxBuckets) {
+        long currentBucket = bucketOf(nowMillis);
+        int removed = 0;
+        int dropped = 0;
+        Map.Entry<Long, Set<TokenKey>> oldest;
+        while (dropped < maxBuckets
+                && (oldest = buckets.firstEntry()) != null
+                && oldest.getKey() < currentBucket) {
+            if (buckets.remove(oldest.getKey(), oldest.getValue())) {
+                int bucketSize = oldest.getValue().size();
+                size.addAndGet(-bucketSize);
+                removed += bucketSize;
+                dropped++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of revoked tokens currently tracked
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * @return the number of expiry buckets currently held
+     */
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    private static long bucketOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, BUCKET_MILLIS);
+    }
+}
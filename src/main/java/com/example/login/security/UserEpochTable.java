@@ -0,0 +1,141 @@
+package com.example.login.security;
+
+/**
+ * Immutable open-addressing map from user ID to token epoch, stored in two
+ * primitive arrays so lookups neither box nor allocate.
+ * Users that are absent from the table are at epoch 0.
+ */
+public final class UserEpochTable {
+
+    private static final long EMPTY = 0L;
+
+    public static final UserEpochTable EMPTY_TABLE = new UserEpochTable(new long[0], new long[0], 0);
+
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+    private final int size;
+
+    private UserEpochTable(long[] keys, long[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Build a table from parallel arrays of user IDs and epochs.
+     * Non-positive user IDs and zero epochs are skipped.
+     *
+     * @param userIds the user IDs
+     * @param epochs the epoch of each user
+     * @param count the number of entries to read from the arrays
+     * @return the table
+     */
+    public static UserEpochTable of(long[] userIds, long[] epochs, int count) {
+        // Keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1;
+        long[] keys = new long[capacity];
+        long[] values = new long[capacity];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (userIds[i] <= 0 || epochs[i] == 0) {
+                continue;
+            }
+            int slot = indexFor(userIds[i], capacity - 1);
+            while (keys[slot] != EMPTY && keys[slot] != userIds[i]) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = userIds[i];
+            values[slot] = epochs[i];
+        }
+        return new UserEpochTable(keys, values, size);
+    }
+
+    /**
+     * Get the epoch of a user.
+     *
+     * @param userId the user ID
+     * @return the user's epoch, or 0 if the user has never been mass-revoked
+     */
+    public long get(long userId) {
+        if (size == 0) {
+            return 0L;
+        }
+        int slot = indexFor(userId, mask);
+        long key;
+        while ((key = keys[slot]) != EMPTY) {
+            if (key == userId) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0L;
+    }
+
+    /**
+     * Return a copy of this table with one user's epoch replaced.
+     *
+     * @param userId the user ID
+     * @param epoch the new epoch
+     * @return the new table
+     */
+    public UserEpochTable with(long userId, long epoch) {
+        long[] userIds = new long[size + 1];
+        long[] epochs = new long[size + 1];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && keys[i] != userId) {
+                userIds[count] = keys[i];
+                epochs[count] = values[i];
+                count++;
+            }
+        }
+        userIds[count] = userId;
+        epochs[count] = epoch;
+        return of(userIds, epochs, count + 1);
+    }
+
+    /**
+     * Combine two tables, keeping the higher epoch for users present in both.
+     * Epochs only ever increase, so this never undoes a revocation.
+     *
+     * @param other the table to merge with
+     * @return the merged table
+     */
+    public UserEpochTable mergeMax(UserEpochTable other) {
+        long[] userIds = new long[size + other.size];
+        long[] epochs = new long[size + other.size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                userIds[count] = keys[i];
+                epochs[count] = Math.max(values[i], other.get(keys[i]));
+                count++;
+            }
+        }
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY && get(other.keys[i]) == 0L) {
+                userIds[count] = other.keys[i];
+                epochs[count] = other.values[i];
+                count++;
+            }
+        }
+        return of(userIds, epochs, count);
+    }
+
+    /**
+     * @return the number of users with a non-zero epoch
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int indexFor(long userId, int mask) {
+        // Fibonacci hashing spreads sequential IDs across the table
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> 33) & mask;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.login.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of a JWT whose signature has already been verified.
+ * Built once per request so the subject, expiration, roles and client IDs
+ * can be read repeatedly without re-verifying or re-parsing the token.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class VerifiedToken {
+
+    private final String token;
+    private final Claims claims;
+    private final String tokenId;
+    private final String username;
+    private final Long userId;
+    private final long epoch;
+    private final Date expiration;
+    private final List<String> roles;
+    private final List<Long> clients;
+
+    /**
+     * Create a verified token view from the raw token and its verified claims.
+     *
+     * @param token the compact JWT string
+     * @param claims the claims returned by a signature-verifying parser
+     * @return the verified token view
+     */
+    public static VerifiedToken of(String token, Claims claims) {
+        return new VerifiedToken(
+            token,
+            claims,
+            claims.getId(),
+            claims.getSubject(),
+            toLong(claims.get("uid")),
+            Optional.ofNullable(toLong(claims.get("epoch"))).orElse(0L),
+            claims.getExpiration(),
+            toRoles(claims.get("roles")),
+            toClients(claims.get("clients"))
+        );
+    }
+
+    /**
+     * Check if the token is expired at the given instant.
+     *
+     * @param now the reference instant
+     * @return true if the token has no expiration or expired before now
+     */
+    public boolean isExpired(Date now) {
+        return expiration == null || expiration.before(now);
+    }
+
+    /**
+     * Key under which this token is revoked: its {@code jti} when present,
+     * otherwise a digest of the whole token for tokens issued without an ID.
+     *
+     * @return the fixed-size revocation key
+     */
+    public TokenKey revocationKey() {
+        return tokenId != null ? TokenKey.fromId(tokenId) : TokenKey.digest(token);
+    }
+
+    private static List<String> toRoles(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream()
+                .map(Object::toString)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static List<Long> toClients(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream()
+                .map(VerifiedToken::toLong)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static Long toLong(Object obj) {
+        if (obj == null) {
+            return null;
+        } else if (obj instanceof Integer) {
+            return ((Integer) obj).longValue();
+        } else if (obj instanceof Long) {
+            return (Long) obj;
+        } else {
+            return Long.valueOf(obj.toString());
+        }
+    }
+}
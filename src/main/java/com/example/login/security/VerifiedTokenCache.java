@@ -0,0 +1,100 @@
+package com.example.login.security;
+
+import com.example.login.config.JwtConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in cache of already verified tokens, keyed by {@link TokenKey}.
+ * Bounded by {@code jwt.cache.maximum-size} with W-TinyLFU eviction, and every
+ * entry expires no later than the {@code exp} claim of its token.
+ * When {@code jwt.cache.enabled} is false every lookup misses and nothing is stored.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final Cache<TokenKey, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtConfig jwtConfig) {
+        JwtConfig.CacheProperties properties = jwtConfig.getCache();
+        if (properties.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaximumSize())
+                    .expireAfter(new UntilTokenExpiry())
+                    .build();
+            log.info("Verified token cache enabled with maximum size {}", properties.getMaximumSize());
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Look up a previously verified token.
+     *
+     * @param token the compact JWT string
+     * @return the verified token, or null if not cached or the cache is disabled
+     */
+    public VerifiedToken get(String token) {
+        if (cache == null) {
+            return null;
+        }
+        VerifiedToken cached = cache.getIfPresent(TokenKey.digest(token));
+        // Guard against digest collisions: only a byte-identical token may reuse the verification
+        return cached != null && cached.getToken().equals(token) ? cached : null;
+    }
+
+    /**
+     * Store a verified token until its expiration.
+     *
+     * @param verifiedToken the token whose signature has been verified
+     */
+    public void put(VerifiedToken verifiedToken) {
+        if (cache == null || verifiedToken.getExpiration() == null) {
+            return;
+        }
+        cache.put(TokenKey.digest(verifiedToken.getToken()), verifiedToken);
+    }
+
+    /**
+     * Drop a token from the cache, e.g. when it is blacklisted.
+     *
+     * @param token the compact JWT string
+     */
+    public void invalidate(String token) {
+        if (cache != null) {
+            cache.invalidate(TokenKey.digest(token));
+        }
+    }
+
+    /**
+     * @return the approximate number of cached tokens
+     */
+    public long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenKey, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenKey key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenKey key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenKey key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -2,20 +2,22 @@ package com.example.login.service;
 
 import com.example.login.config.JwtConfig;
 import com.example.login.entity.User;
+import com.example.login.security.JwtKeyRing;
+import com.example.login.security.TokenKey;
+import com.example.login.security.VerifiedToken;
+import com.example.login.security.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
@@ -24,10 +26,10 @@ import java.util.function.Function;
 public class JwtService {
 
     private final JwtConfig jwtConfig;
-    private final SecretKey secretKey;
-    
-    // In-memory token blacklist for logout functionality
-    private final Map<String, Date> tokenBlacklist = new ConcurrentHashMap<>();
+    private final JwtKeyRing keyRing;
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService revocationService;
 
     /**
      * Generate JWT token for user
@@ -35,6 +37,8 @@ public class JwtService {
     public String generateToken(User user, List<String> roles, List<Long> clientIds) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", user.getUsername());
+        claims.put("uid", user.getId());
+        claims.put("epoch", user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L);
         claims.put("roles", roles);
         claims.put("clients", clientIds);
         
@@ -47,14 +51,17 @@ public class JwtService {
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtConfig.getExpiration());
+        JwtKeyRing.SigningKey signingKey = keyRing.currentKey();
 
         return Jwts.builder()
+                .header().keyId(signingKey.keyId()).and()
                 .setClaims(claims)
+                .setId(TokenKey.random().toId())
                 .setSubject(subject)
                 .setIssuer(jwtConfig.getIssuer())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(secretKey, SignatureAlgorithm.HS512)
+                .signWith(signingKey.signingKey(), keyRing.algorithm())
                 .compact();
     }
 
@@ -75,35 +82,36 @@ public class JwtService {
     /**
      * Extract roles from token
      */
-    @SuppressWarnings("unchecked")
     public List<String> extractRoles(String token) {
-        return extractClaim(token, claims -> (List<String>) claims.get("roles"));
+        return verifyToken(token).getRoles();
     }
 
     /**
      * Extract client IDs from token
      */
-    @SuppressWarnings("unchecked")
     public List<Long> extractClients(String token) {
-        List<?> clients = extractClaim(token, claims -> (List<?>) claims.get("clients"));
-        return clients.stream()
-                .map(obj -> {
-                    if (obj instanceof Integer) {
-                        return ((Integer) obj).longValue();
-                    } else if (obj instanceof Long) {
-                        return (Long) obj;
-                    } else {
-                        return Long.valueOf(obj.toString());
-                    }
-                })
-                .collect(java.util.stream.Collectors.toList());
+        return verifyToken(token).getClients();
+    }
+
+    /**
+     * Verify the token signature once and expose its claims as an immutable view.
+     * Callers that need several claims should use this instead of the individual extractors.
+     */
+    public VerifiedToken verifyToken(String token) {
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        VerifiedToken verifiedToken = VerifiedToken.of(token, extractAllClaims(token));
+        verifiedTokenCache.put(verifiedToken);
+        return verifiedToken;
     }
 
     /**
      * Extract specific claim from token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token).getClaims();
         return claimsResolver.apply(claims);
     }
 
@@ -111,11 +119,7 @@ public class JwtService {
      * Extract all claims from token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     /**
@@ -125,11 +129,32 @@ public class JwtService {
         return extractExpiration(token).before(new Date());
     }
 
+    /**
+     * Check if an already verified token is expired
+     */
+    public boolean isTokenExpired(VerifiedToken verifiedToken) {
+        return verifiedToken.isExpired(new Date());
+    }
+
     /**
      * Check if token is blacklisted (logged out)
      */
     public Boolean isTokenBlacklisted(String token) {
-        return tokenBlacklist.containsKey(token);
+        try {
+            return isTokenBlacklisted(verifyToken(token));
+        } catch (Exception e) {
+            log.debug("Blacklist check on unverifiable token: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Check if an already verified token is blacklisted (logged out)
+     */
+    public boolean isTokenBlacklisted(VerifiedToken verifiedToken) {
+        return verifiedToken.getExpiration() != null
+                && revocationService.isRevoked(verifiedToken.revocationKey(),
+                        verifiedToken.getExpiration().getTime());
     }
 
     /**
@@ -137,24 +162,39 @@ public class JwtService {
      */
     public Boolean validateToken(String token, String username) {
         try {
-            final String extractedUsername = extractUsername(token);
-            return (extractedUsername.equals(username) && !isTokenExpired(token) && !isTokenBlacklisted(token));
+            return validateToken(verifyToken(token), username);
         } catch (Exception e) {
             log.warn("Token validation failed: {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Validate an already verified token without parsing it again
+     */
+    public boolean validateToken(VerifiedToken verifiedToken, String username) {
+        final String extractedUsername = verifiedToken.getUsername();
+        return extractedUsername != null
+                && extractedUsername.equals(username)
+                && !isTokenExpired(verifiedToken)
+                && !isTokenBlacklisted(verifiedToken);
+    }
+
     /**
      * Blacklist token (for logout)
+     *
+     * @return the revoked token, or empty if it could not be verified
      */
-    public void blacklistToken(String token) {
+    public Optional<VerifiedToken> blacklistToken(String token) {
         try {
-            Date expiration = extractExpiration(token);
-            tokenBlacklist.put(token, expiration);
-            log.info("Token blacklisted for user: {}", extractUsername(token));
+            VerifiedToken verifiedToken = verifyToken(token);
+            revocationService.revoke(verifiedToken.revocationKey(), verifiedToken.getExpiration().getTime());
+            verifiedTokenCache.invalidate(token);
+            log.info("Token blacklisted for user: {}", verifiedToken.getUsername());
+            return Optional.of(verifiedToken);
         } catch (Exception e) {
             log.warn("Failed to blacklist token: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
@@ -162,7 +202,6 @@ public class JwtService {
      * Clean up expired tokens from blacklist
      */
     public void cleanupExpiredTokens() {
-        Date now = new Date();
-        tokenBlacklist.entrySet().removeIf(entry -> entry.getValue().before(now));
+        revocationService.cleanupExpired();
     }
 }
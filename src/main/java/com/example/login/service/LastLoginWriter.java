@@ -0,0 +1,146 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for last-login timestamps.
+ * Logins only record the timestamp in memory, keeping the latest one per user;
+ * a background job writes all pending users with one {@code UPDATE ... CASE}
+ * statement per batch. The buffer is bounded and flushed on shutdown.
+ */
+@Service
+@Slf4j
+public class LastLoginWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginConfig.LastLoginProperties properties;
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+
+    public LastLoginWriter(JdbcTemplate jdbcTemplate, LoginConfig loginConfig, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = loginConfig.getLastLogin();
+        Gauge.builder("users.last-login.pending", pending, Map::size)
+                .description("Users whose last-login timestamp awaits a write")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("users.last-login.dropped")
+                .description("Last-login timestamps dropped because the buffer was full")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("users.last-login.written")
+                .description("Last-login timestamps written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a login; only the latest timestamp per user is kept until the next flush.
+     *
+     * @param userId the user ID
+     * @param loginTime the login timestamp
+     * @return true if the timestamp was buffered, false if the buffer was full
+     */
+    public boolean record(Long userId, LocalDateTime loginTime) {
+        if (userId == null) {
+            return false;
+        }
+        if (pending.size() >= properties.getMaxPending() && !pending.containsKey(userId)) {
+            droppedCounter.increment();
+            log.debug("Last-login buffer full, dropping update for user ID: {}", userId);
+            return false;
+        }
+        pending.merge(userId, loginTime, (previous, current) -> current.isAfter(previous) ? current : previous);
+        return true;
+    }
+
+    /**
+     * Write all pending timestamps.
+     *
+     * @return the number of users written
+     */
+    @Scheduled(fixedDelayString = "${login.last-login.flush-interval:1000}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int written = 0;
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>(properties.getBatchSize());
+        Iterator<Map.Entry<Long, LocalDateTime>> entries = pending.entrySet().iterator();
+        try {
+            while (entries.hasNext()) {
+                Map.Entry<Long, LocalDateTime> entry = entries.next();
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                if (batch.size() == properties.getBatchSize()) {
+                    written += write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                written += write(batch);
+            }
+        } catch (Exception e) {
+            // Entries that were not written stay pending for the next flush
+            log.warn("Failed to write last-login timestamps: {}", e.getMessage());
+        }
+        writtenCounter.increment(written);
+        return written;
+    }
+
+    /**
+     * Write whatever is still pending before the application stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        int written = flush();
+        if (!pending.isEmpty()) {
+            log.warn("{} last-login timestamps could not be written on shutdown", pending.size());
+        } else if (written > 0) {
+            log.info("Wrote {} pending last-login timestamps on shutdown", written);
+        }
+    }
+
+    /**
+     * @return the number of users awaiting a write
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private int write(List<Map.Entry<Long, LocalDateTime>> batch) {
+        StringBuilder sql = new StringBuilder("UPDATE users SET date_last_login = CASE id");
+        List<Object> args = new ArrayList<>(batch.size() * 3);
+        for (Map.Entry<Long, LocalDateTime> entry : batch) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(Timestamp.valueOf(entry.getValue()));
+        }
+        // A login is not a profile change, so date_updated keeps its value
+        sql.append(" ELSE date_last_login END, date_updated = date_updated WHERE id IN (");
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(batch.get(i).getKey());
+        }
+        sql.append(')');
+        jdbcTemplate.update(sql.toString(), args.toArray());
+        for (Map.Entry<Long, LocalDateTime> entry : batch) {
+            // Keep timestamps recorded while the statement ran
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+        return batch.size();
+    }
+}
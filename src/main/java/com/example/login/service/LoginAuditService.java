@@ -0,0 +1,195 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.util.BoundedRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind audit trail of logins and logouts into {@code logs_logins}.
+ * Request threads only publish an event into a lock-free {@link BoundedRingBuffer};
+ * a single background thread drains it into JDBC batch inserts. When the buffer
+ * is full the event is dropped and counted rather than slowing the request down.
+ */
+@Service
+@Slf4j
+public class LoginAuditService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO logs_logins (user_id, type, date_created, date_updated) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginConfig.AuditProperties properties;
+    private final BoundedRingBuffer<AuditEvent> buffer;
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public LoginAuditService(JdbcTemplate jdbcTemplate, LoginConfig loginConfig, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = loginConfig.getAudit();
+        this.buffer = new BoundedRingBuffer<>(properties.getBufferSize());
+        Gauge.builder("login.audit.buffer.size", buffer, BoundedRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("login.audit.published")
+                .description("Audit events accepted into the buffer")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("login.audit.dropped")
+                .description("Audit events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("login.audit.written")
+                .description("Audit events inserted into logs_logins")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("login.audit.failed")
+                .description("Audit events lost to failed inserts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a successful login.
+     *
+     * @param userId the user ID
+     * @return false if the event was dropped
+     */
+    public boolean recordLogin(Long userId) {
+        return publish(userId, EventType.LOGIN);
+    }
+
+    /**
+     * Record a logout.
+     *
+     * @param userId the user ID
+     * @return false if the event was dropped
+     */
+    public boolean recordLogout(Long userId) {
+        return publish(userId, EventType.LOGOUT);
+    }
+
+    /**
+     * Write buffered events until the buffer is empty.
+     *
+     * @return the number of events written
+     */
+    public int drain() {
+        List<AuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        int written = 0;
+        while (buffer.drainTo(batch, properties.getBatchSize()) > 0) {
+            written += write(batch);
+            batch.clear();
+        }
+        return written;
+    }
+
+    /**
+     * @return the number of events waiting to be written
+     */
+    public int pendingCount() {
+        return buffer.size();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Login audit trail is disabled");
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "login-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer and write whatever is still buffered.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int written = drain();
+        if (written > 0) {
+            log.info("Wrote {} buffered audit events on shutdown", written);
+        }
+    }
+
+    private boolean publish(Long userId, EventType type) {
+        if (!properties.isEnabled() || userId == null) {
+            return false;
+        }
+        if (buffer.offer(new AuditEvent(userId, type, System.currentTimeMillis()))) {
+            publishedCounter.increment();
+            return true;
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    private void runWriter() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleWait());
+        List<AuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            if (buffer.drainTo(batch, properties.getBatchSize()) == 0) {
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private int write(List<AuditEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                Timestamp timestamp = new Timestamp(event.timestampMillis());
+                ps.setLong(1, event.userId());
+                ps.setString(2, event.type().name());
+                ps.setTimestamp(3, timestamp);
+                ps.setTimestamp(4, timestamp);
+            });
+            writtenCounter.increment(batch.size());
+            return batch.size();
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.warn("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Types of audit events, stored in {@code logs_logins.type}.
+     */
+    public enum EventType {
+        LOGIN,
+        LOGOUT
+    }
+
+    /**
+     * A buffered audit event.
+     */
+    record AuditEvent(long userId, EventType type, long timestampMillis) {
+    }
+}
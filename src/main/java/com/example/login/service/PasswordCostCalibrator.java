@@ -0,0 +1,147 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.entity.User.PasswordType;
+import com.example.login.util.PasswordHashUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tunes the key-derivation costs of the password policy to this host.
+ * At startup each KDF is timed with the configured cost and the cost is raised
+ * until one hash takes about {@code login.password-policy.calibration.target-millis}.
+ * The configured costs are treated as minimums, so a slow host keeps them.
+ * The chosen parameters and measured latencies are exposed by the
+ * {@code passwordcost} actuator endpoint.
+ */
+@Service
+@Slf4j
+public class PasswordCostCalibrator {
+
+    private static final String PASSWORD = "Calibration@123";
+    private static final int BCRYPT_MAX_COST = 31;
+
+    private final LoginConfig.PasswordPolicyProperties policy;
+    private volatile Map<PasswordType, Calibration> calibrations = Collections.emptyMap();
+
+    public PasswordCostCalibrator(LoginConfig loginConfig) {
+        this.policy = loginConfig.getPasswordPolicy();
+    }
+
+    /**
+     * Measure each KDF and raise the policy costs to the calibration target.
+     * Runs before the application reports itself ready to accept traffic.
+     *
+     * @return the calibration of each KDF, empty if calibration is disabled or failed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized Map<PasswordType, Calibration> calibrate() {
+        LoginConfig.CalibrationProperties properties = policy.getCalibration();
+        if (!properties.isEnabled()) {
+            log.info("Password cost calibration is disabled");
+            return calibrations;
+        }
+        try {
+            Map<PasswordType, Calibration> results = new EnumMap<>(PasswordType.class);
+            results.put(PasswordType.ARGON2ID, calibrateArgon2(properties));
+            results.put(PasswordType.PBKDF2, calibratePbkdf2(properties));
+            results.put(PasswordType.BCRYPT, calibrateBcrypt(properties));
+            calibrations = Collections.unmodifiableMap(results);
+            results.values().forEach(calibration -> log.info("Calibrated {} to {} ({} ms per hash, target {} ms)",
+                    calibration.type(), calibration.parameters(), String.format("%.1f", calibration.measuredMillis()),
+                    calibration.targetMillis()));
+        } catch (Exception e) {
+            log.warn("Password cost calibration failed, keeping configured costs: {}", e.getMessage());
+        }
+        return calibrations;
+    }
+
+    /**
+     * @return the latest calibration of each KDF
+     */
+    public Map<PasswordType, Calibration> getCalibrations() {
+        return calibrations;
+    }
+
+    private Calibration calibrateArgon2(LoginConfig.CalibrationProperties properties) {
+        int memoryKb = policy.getArgon2MemoryKb();
+        int parallelism = policy.getArgon2Parallelism();
+        int baseIterations = policy.getArgon2Iterations();
+        double baseMillis = measure(PasswordType.ARGON2ID,
+                PasswordHashUtil.generateArgon2Salt(memoryKb, baseIterations, parallelism), properties);
+        // Argon2 time grows linearly with the number of passes
+        int iterations = Math.max(baseIterations,
+                (int) Math.round(baseIterations * properties.getTargetMillis() / baseMillis));
+        double millis = iterations == baseIterations ? baseMillis : measure(PasswordType.ARGON2ID,
+                PasswordHashUtil.generateArgon2Salt(memoryKb, iterations, parallelism), properties);
+        policy.setArgon2Iterations(iterations);
+        return calibration(PasswordType.ARGON2ID, Map.of("m", memoryKb, "t", iterations, "p", parallelism),
+                baseMillis, millis, properties);
+    }
+
+    private Calibration calibratePbkdf2(LoginConfig.CalibrationProperties properties) {
+        int baseIterations = policy.getPbkdf2Iterations();
+        double baseMillis = measure(PasswordType.PBKDF2, PasswordHashUtil.generatePbkdf2Salt(baseIterations), properties);
+        int iterations = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(baseIterations, Math.round(baseIterations * properties.getTargetMillis() / baseMillis)));
+        double millis = iterations == baseIterations ? baseMillis
+                : measure(PasswordType.PBKDF2, PasswordHashUtil.generatePbkdf2Salt(iterations), properties);
+        policy.setPbkdf2Iterations(iterations);
+        return calibration(PasswordType.PBKDF2, Map.of("i", iterations), baseMillis, millis, properties);
+    }
+
+    private Calibration calibrateBcrypt(LoginConfig.CalibrationProperties properties) {
+        int baseCost = policy.getBcryptCost();
+        double baseMillis = measure(PasswordType.BCRYPT, PasswordHashUtil.generateBcryptSalt(baseCost), properties);
+        // Every extra log round doubles the time
+        int extraRounds = (int) Math.floor(Math.log(properties.getTargetMillis() / baseMillis) / Math.log(2));
+        int cost = Math.min(BCRYPT_MAX_COST, baseCost + Math.max(0, extraRounds));
+        double millis = cost == baseCost ? baseMillis
+                : measure(PasswordType.BCRYPT, PasswordHashUtil.generateBcryptSalt(cost), properties);
+        policy.setBcryptCost(cost);
+        return calibration(PasswordType.BCRYPT, Map.of("cost", cost), baseMillis, millis, properties);
+    }
+
+    private static Calibration calibration(PasswordType type, Map<String, Integer> parameters, double baseMillis,
+                                           double millis, LoginConfig.CalibrationProperties properties) {
+        return new Calibration(type, new LinkedHashMap<>(parameters), baseMillis, millis,
+                properties.getTargetMillis(), System.currentTimeMillis());
+    }
+
+    /**
+     * Median time of one hash in milliseconds, after one untimed warm-up hash.
+     */
+    private static double measure(PasswordType type, String salt, LoginConfig.CalibrationProperties properties) {
+        PasswordHashUtil.generateHash(type, salt, PASSWORD);
+        long[] samples = new long[Math.max(1, properties.getSamples())];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            PasswordHashUtil.generateHash(type, salt, PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Math.max(samples[samples.length / 2], 1L) / 1_000_000.0;
+    }
+
+    /**
+     * Result of calibrating one KDF.
+     *
+     * @param type the password type
+     * @param parameters the chosen cost parameters
+     * @param baselineMillis hash time with the configured cost
+     * @param measuredMillis hash time with the chosen cost
+     * @param targetMillis the calibration target
+     * @param calibratedAt when the calibration ran, in epoch milliseconds
+     */
+    public record Calibration(PasswordType type, Map<String, Integer> parameters, double baselineMillis,
+                              double measuredMillis, long targetMillis, long calibratedAt) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.entity.User;
+import com.example.login.entity.User.PasswordType;
+import com.example.login.util.PasswordHashUtil.PasswordHashResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves users to the target password policy as they log in.
+ * After a successful login with a hash of another type or cost, the password is
+ * re-encoded on a single background thread and written with an optimistic
+ * {@code UPDATE} that only applies if the stored hash is still the one that was
+ * verified, so a concurrent password change always wins. The {@code UPDATE} bumps
+ * {@code date_updated} so other nodes drop their cached snapshot of the user. The queue is bounded;
+ * a skipped re-encoding is simply retried on the user's next login.
+ */
+@Service
+@Slf4j
+public class PasswordRehashService {
+
+    private static final String UPDATE_SQL =
+        "UPDATE users SET password_type = ?, password_salt = ?, password_hash = ?, date_updated = CURRENT_TIMESTAMP "
+            + "WHERE id = ? AND password_hash = ?";
+
+    private final PasswordService passwordService;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserAuthzCache authzCache;
+    private final LoginConfig.PasswordPolicyProperties policy;
+    private final ThreadPoolExecutor executor;
+    private final Counter rehashedCounter;
+    private final Counter conflictCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+
+    public PasswordRehashService(PasswordService passwordService, JdbcTemplate jdbcTemplate,
+                                 UserAuthzCache authzCache, LoginConfig loginConfig, MeterRegistry meterRegistry) {
+        this.passwordService = passwordService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.authzCache = authzCache;
+        this.policy = loginConfig.getPasswordPolicy();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(policy.getRehashQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehash");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("password.rehash.pending", executor, e -> e.getQueue().size())
+                .description("Passwords waiting to be re-encoded")
+                .register(meterRegistry);
+        this.rehashedCounter = Counter.builder("password.rehash.completed")
+                .description("Passwords re-encoded under the target policy")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("password.rehash.conflicts")
+                .description("Re-encodings discarded because the password changed meanwhile")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("password.rehash.skipped")
+                .description("Re-encodings skipped because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("password.rehash.failed")
+                .description("Re-encodings that failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedule a re-encoding of a freshly verified password if its hash is outdated.
+     *
+     * @param user the authenticated user, as loaded before verification
+     * @param password the plain text password that was just verified
+     * @return true if a re-encoding was scheduled
+     */
+    public boolean rehashIfNeeded(User user, String password) {
+        if (!policy.isRehashOnLogin() || user.getId() == null
+                || !passwordService.needsRehash(user.getPasswordType(), user.getPasswordSalt())) {
+            return false;
+        }
+        Long userId = user.getId();
+        String verifiedHash = user.getPasswordHash();
+        try {
+            executor.execute(() -> rehash(userId, verifiedHash, password));
+            return true;
+        } catch (RejectedExecutionException e) {
+            skippedCounter.increment();
+            log.debug("Password re-encoding queue full, user {} will be migrated on a later login", userId);
+            return false;
+        }
+    }
+
+    /**
+     * Re-encode a password under the target policy.
+     *
+     * @param userId the user ID
+     * @param verifiedHash the stored hash the password was verified against
+     * @param password the plain text password
+     * @return true if the new hash was written
+     */
+    public boolean rehash(Long userId, String verifiedHash, String password) {
+        try {
+            PasswordType targetType = passwordService.getDefaultPasswordType();
+            PasswordHashResult result = passwordService.generateHash(targetType, password);
+            int updated = jdbcTemplate.update(UPDATE_SQL,
+                    targetType.name(), result.getSalt(), result.getHash(), userId, verifiedHash);
+            // Either way the cached hash is outdated; other nodes see the new date_updated on reconcile
+            authzCache.invalidate(userId);
+            if (updated == 0) {
+                conflictCounter.increment();
+                log.debug("Password of user {} changed before it could be re-encoded", userId);
+                return false;
+            }
+            rehashedCounter.increment();
+            log.debug("Re-encoded password of user {} as {}", userId, targetType);
+            return true;
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("Failed to re-encode password of user {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Finish queued re-encodings before shutting down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.login.service;
 
+import com.example.login.config.LoginConfig;
 import com.example.login.entity.User.PasswordType;
 import com.example.login.util.PasswordHashUtil;
 import com.example.login.util.PasswordHashUtil.PasswordHashResult;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 /**
  * Spring service for password hashing and validation operations.
  * Provides a high-level interface for password management with different hashing algorithms.
  */
 @Service
+@RequiredArgsConstructor
 public class PasswordService {
 
+    private final PasswordVerificationExecutor verificationExecutor;
+    private final LoginConfig loginConfig;
+
+    private volatile DummyCredential dummyCredential;
+
     /**
      * Generate a hash for the given password using the specified algorithm.
      * 
@@ -37,7 +47,8 @@ public class PasswordService {
         if (password == null || password.trim().isEmpty()) {
             throw new IllegalArgumentException("Password cannot be null or empty");
         }
-        return PasswordHashUtil.generateHashWithSalt(type, password);
+        String salt = generateSalt(type);
+        return new PasswordHashResult(salt, PasswordHashUtil.generateHash(type, salt, password));
     }
 
     /**
@@ -103,6 +114,10 @@ public class PasswordService {
         if (salt == null || salt.trim().isEmpty() || hash == null || hash.trim().isEmpty()) {
             return false;
         }
+        if (isKeyStretching(type)) {
+            // Keep slow hashes off request threads
+            return verificationExecutor.verify(() -> PasswordHashUtil.isValid(type, salt, password, hash));
+        }
         return PasswordHashUtil.isValid(type, salt, password, hash);
     }
 
@@ -125,7 +140,14 @@ public class PasswordService {
      * @return a salt string appropriate for the algorithm
      */
     public String generateSalt(PasswordType type) {
-        return PasswordHashUtil.generateSalt(type);
+        LoginConfig.PasswordPolicyProperties policy = loginConfig.getPasswordPolicy();
+        return switch (type) {
+            case ARGON2ID -> PasswordHashUtil.generateArgon2Salt(policy.getArgon2MemoryKb(),
+                    policy.getArgon2Iterations(), policy.getArgon2Parallelism());
+            case PBKDF2 -> PasswordHashUtil.generatePbkdf2Salt(policy.getPbkdf2Iterations());
+            case BCRYPT -> PasswordHashUtil.generateBcryptSalt(policy.getBcryptCost());
+            default -> PasswordHashUtil.generateSalt(type);
+        };
     }
 
     /**
@@ -134,7 +156,67 @@ public class PasswordService {
      * @return the default password type
      */
     public PasswordType getDefaultPasswordType() {
-        return PasswordType.MD5;
+        return loginConfig.getPasswordPolicy().getTargetType();
+    }
+
+    /**
+     * Check if a stored password should be re-encoded under the target policy.
+     * Only weaker hashes are re-encoded, so nodes calibrated to different costs
+     * never downgrade each other's hashes.
+     * 
+     * @param type the password hashing algorithm type of the stored hash
+     * @param salt the stored salt, carrying the cost parameters of KDF types
+     * @return true if the type differs from the policy or its cost is below it
+     */
+    public boolean needsRehash(PasswordType type, String salt) {
+        LoginConfig.PasswordPolicyProperties policy = loginConfig.getPasswordPolicy();
+        if (type != policy.getTargetType()) {
+            return true;
+        }
+        Map<String, Integer> cost = PasswordHashUtil.costParameters(salt);
+        return switch (type) {
+            case ARGON2ID -> cost.getOrDefault("m", 0) < policy.getArgon2MemoryKb()
+                    || cost.getOrDefault("t", 0) < policy.getArgon2Iterations()
+                    || cost.getOrDefault("p", 0) < policy.getArgon2Parallelism();
+            case PBKDF2 -> cost.getOrDefault("i", 0) < policy.getPbkdf2Iterations();
+            case BCRYPT -> PasswordHashUtil.bcryptCost(salt) < policy.getBcryptCost();
+            default -> false;
+        };
+    }
+
+    /**
+     * Spend the same hashing work as a real verification, for logins that match no user.
+     * Keeps unknown and known identifiers indistinguishable by response time. Logins of
+     * users still on a fast legacy hash call this too, so they cost no less than a miss.
+     * 
+     * @param password the plain text password that was submitted
+     */
+    public void verifyDummy(String password) {
+        if (password == null || password.trim().isEmpty()) {
+            return;
+        }
+        PasswordType type = getDefaultPasswordType();
+        DummyCredential dummy = dummyCredential;
+        if (dummy == null || dummy.type() != type || needsRehash(type, dummy.salt())) {
+            // Follow the policy so the dummy costs as much as the hashes of real users
+            PasswordHashResult result = generateHash(type, PasswordHashUtil.generateRandomSaltHex(16));
+            dummy = new DummyCredential(type, result.getSalt(), result.getHash());
+            dummyCredential = dummy;
+        }
+        isValid(dummy.type(), dummy.salt(), password, dummy.hash());
+    }
+
+    /**
+     * Check if a password type is deliberately slow to compute.
+     * 
+     * @param type the password hashing algorithm type
+     * @return true if verifying this type costs significant CPU time
+     */
+    public boolean isKeyStretching(PasswordType type) {
+        return switch (type) {
+            case BCRYPT, ARGON2ID, PBKDF2 -> true;
+            case SHA256, MD5, SHA512 -> false;
+        };
     }
 
     /**
@@ -155,4 +237,7 @@ public class PasswordService {
         
         return hasUpperCase && hasLowerCase && hasDigit && hasSpecialChar;
     }
+
+    private record DummyCredential(PasswordType type, String salt, String hash) {
+    }
 }
@@ -0,0 +1,116 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Dedicated, CPU-sized thread pool for key-stretching password verification.
+ * Keeps login bursts from occupying every request thread with hashing work:
+ * the queue is bounded and a verification that cannot be queued, or that waits
+ * too long to start, fails fast with a {@link ServiceBusyException}.
+ */
+@Service
+@Slf4j
+public class PasswordVerificationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final LoginConfig.PasswordVerificationProperties properties;
+    private final Timer waitTimer;
+    private final Timer durationTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordVerificationExecutor(LoginConfig loginConfig, MeterRegistry meterRegistry) {
+        this.properties = loginConfig.getPasswordVerification();
+        int threads = properties.getThreads() > 0
+                ? properties.getThreads()
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("password.verification.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password verifications waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.verification.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications in progress")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.verification.wait")
+                .description("Time a password verification waited in the queue")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("password.verification.duration")
+                .description("Time spent verifying a password")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.verification.rejected")
+                .description("Password verifications rejected because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a password verification on the pool and wait for its result.
+     *
+     * @param verification the verification to run
+     * @return the verification result
+     * @throws ServiceBusyException if the pool is saturated
+     */
+    public boolean verify(BooleanSupplier verification) {
+        long submitted = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return verification.getAsBoolean();
+                } finally {
+                    durationTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Password verification queue is full", properties.getRetryAfter(), e);
+        }
+        try {
+            return result.get(properties.getMaxWait(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Password verification timed out", properties.getRetryAfter(), e);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.login.service;
+
+import com.example.login.config.JwtConfig;
+import com.example.login.repository.UserRepository;
+import com.example.login.security.UserEpochTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Service for per-user token epochs ("log out everywhere").
+ * Every token carries the epoch of its user at issue time; bumping the user's
+ * epoch in the database revokes all of their outstanding tokens with one write.
+ * Epochs are mirrored in an in-memory {@link UserEpochTable} that is refreshed
+ * in the background, so the per-request check never touches the database.
+ * The refresh follows {@code users.date_updated} and only reads users changed
+ * since the previous one; a periodic rebuild reloads every revoked user.
+ */
+@Service
+@Slf4j
+public class TokenEpochService {
+
+    private static final LocalDateTime NO_CURSOR = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserRepository userRepository;
+    private final JwtConfig.RevocationProperties properties;
+    private final Object refreshLock = new Object();
+
+    private volatile UserEpochTable epochs = UserEpochTable.EMPTY_TABLE;
+    private LocalDateTime cursor = NO_CURSOR;
+
+    public TokenEpochService(UserRepository userRepository, JwtConfig jwtConfig) {
+        this.userRepository = userRepository;
+        this.properties = jwtConfig.getRevocation();
+    }
+
+    /**
+     * Check whether a token epoch is still current for its user.
+     * Allocation-free; reads only the in-memory table.
+     *
+     * @param userId the user ID carried by the token
+     * @param tokenEpoch the epoch carried by the token
+     * @return true if the token was issued under the user's current epoch
+     */
+    public boolean isCurrent(long userId, long tokenEpoch) {
+        return tokenEpoch >= epochs.get(userId);
+    }
+
+    /**
+     * Get the current epoch of a user from the in-memory table.
+     *
+     * @param userId the user ID
+     * @return the user's current epoch
+     */
+    public long currentEpoch(long userId) {
+        return epochs.get(userId);
+    }
+
+    /**
+     * Revoke every token issued to a user so far.
+     *
+     * @param userId the user ID
+     * @return the user's new epoch
+     */
+    @Transactional
+    public long revokeAll(Long userId) {
+        if (userId == null) {
+            log.warn("Attempted to revoke sessions for null user ID");
+            return 0L;
+        }
+        userRepository.incrementTokenEpoch(userId);
+        long epoch = userRepository.findTokenEpochById(userId).orElse(0L);
+        synchronized (this) {
+            epochs = epochs.with(userId, epoch);
+        }
+        log.info("All sessions revoked for user ID: {} (epoch {})", userId, epoch);
+        return epoch;
+    }
+
+    /**
+     * Reload the epochs of every revoked user from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.epoch-rebuild-interval:600000}",
+               initialDelayString = "${jwt.revocation.epoch-rebuild-interval:600000}")
+    public void rebuild() {
+        synchronized (refreshLock) {
+            try {
+                merge(userRepository.findRevokedTokenEpochs());
+                log.debug("Token epoch table rebuilt with {} users", epochs.size());
+            } catch (Exception e) {
+                log.warn("Failed to rebuild token epochs: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Load epochs changed since the last refresh so revocations made on other nodes are seen.
+     *
+     * @return the number of users read
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.epoch-refresh-interval:10000}",
+               initialDelayString = "${jwt.revocation.epoch-refresh-interval:10000}")
+    public int refresh() {
+        synchronized (refreshLock) {
+            try {
+                // Overlap the window so rows stamped by a node with a lagging clock are not skipped
+                LocalDateTime since = cursor.minus(properties.getEpochRefreshOverlap(), ChronoUnit.MILLIS);
+                return merge(userRepository.findTokenEpochsUpdatedSince(since));
+            } catch (Exception e) {
+                log.warn("Failed to refresh token epochs: {}", e.getMessage());
+                return 0;
+            }
+        }
+    }
+
+    private int merge(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        long[] userIds = new long[rows.size()];
+        long[] userEpochs = new long[rows.size()];
+        LocalDateTime latest = cursor;
+        for (int i = 0; i < rows.size(); i++) {
+            userIds[i] = ((Number) rows.get(i)[0]).longValue();
+            userEpochs[i] = ((Number) rows.get(i)[1]).longValue();
+            if (rows.get(i)[2] instanceof LocalDateTime updated && updated.isAfter(latest)) {
+                latest = updated;
+            }
+        }
+        UserEpochTable table = UserEpochTable.of(userIds, userEpochs, rows.size());
+        synchronized (this) {
+            // Keep local revocations that happened after the snapshot was read
+            epochs = table.mergeMax(epochs);
+        }
+        cursor = latest;
+        return rows.size();
+    }
+}
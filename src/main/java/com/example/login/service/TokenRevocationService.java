@@ -0,0 +1,205 @@
+package com.example.login.service;
+
+import com.example.login.config.JwtConfig;
+import com.example.login.security.RevocationBackend;
+import com.example.login.security.RevocationBackend.RevocationRecord;
+import com.example.login.security.TokenBloomFilter;
+import com.example.login.security.TokenKey;
+import com.example.login.security.TokenRevocationStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cluster-wide token revocation.
+ * Revocations are written to the shared {@link RevocationBackend}; every node
+ * follows the backend feed into a local {@link TokenBloomFilter}. A token that
+ * misses the filter is definitely not revoked, so the common case is answered
+ * from memory. Filter hits are confirmed against the local
+ * {@link TokenRevocationStore} and, failing that, with one remote lookup whose
+ * result is remembered so a false positive is only paid for once.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevocationBackend backend;
+    private final TokenRevocationStore localStore;
+    private final JwtConfig.RevocationProperties properties;
+    private final Cache<TokenKey, Boolean> clearedTokens;
+    private final Counter remoteLookups;
+    private final Counter backendFailures;
+
+    private volatile TokenBloomFilter bloomFilter;
+    private long cursor;
+
+    public TokenRevocationService(RevocationBackend backend, TokenRevocationStore localStore,
+                                  JwtConfig jwtConfig, MeterRegistry meterRegistry) {
+        this.backend = backend;
+        this.localStore = localStore;
+        this.properties = jwtConfig.getRevocation();
+        this.bloomFilter = newBloomFilter();
+        // Feed entries invalidate this cache; the expiry bounds staleness if the feed skips a row
+        this.clearedTokens = Caffeine.newBuilder()
+                .maximumSize(properties.getRemoteLookupCacheSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getBloomRebuildInterval()))
+                .build();
+        this.remoteLookups = Counter.builder("jwt.revocations.remote.lookups")
+                .description("Revocation checks that had to query the shared backend")
+                .register(meterRegistry);
+        this.backendFailures = Counter.builder("jwt.revocations.backend.failures")
+                .description("Failed calls to the shared revocation backend")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revoke a token on every node until it expires.
+     * The token is revoked locally even if the backend cannot be reached.
+     *
+     * @param key the token key
+     * @param expiresAtMillis the token expiration in epoch milliseconds
+     */
+    public void revoke(TokenKey key, long expiresAtMillis) {
+        try {
+            backend.revoke(key, expiresAtMillis);
+        } catch (Exception e) {
+            backendFailures.increment();
+            log.error("Failed to share token revocation, revoking on this node only: {}", e.getMessage());
+        }
+        localStore.revoke(key, expiresAtMillis);
+        bloomFilter.add(key);
+        clearedTokens.invalidate(key);
+    }
+
+    /**
+     * Check whether a token is revoked anywhere in the cluster.
+     *
+     * @param key the token key
+     * @param expiresAtMillis the token expiration in epoch milliseconds
+     * @return true if the token is revoked
+     */
+    public boolean isRevoked(TokenKey key, long expiresAtMillis) {
+        if (localStore.isRevoked(key, expiresAtMillis)) {
+            return true;
+        }
+        if (!bloomFilter.mightContain(key) || clearedTokens.getIfPresent(key) != null) {
+            return false;
+        }
+        remoteLookups.increment();
+        try {
+            if (backend.isRevoked(key, System.currentTimeMillis())) {
+                localStore.revoke(key, expiresAtMillis);
+                return true;
+            }
+            clearedTokens.put(key, Boolean.TRUE);
+            return false;
+        } catch (Exception e) {
+            // The filter says the token is probably revoked; reject it rather than let it through
+            backendFailures.increment();
+            log.warn("Revocation lookup failed, treating token as revoked: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Pull revocations made on other nodes into the local Bloom filter.
+     *
+     * @return the number of revocations read from the feed
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:2000}",
+               initialDelayString = "${jwt.revocation.sync-interval:2000}")
+    public synchronized int sync() {
+        int read = 0;
+        try {
+            TokenBloomFilter filter = bloomFilter;
+            // Inserts commit out of ID order, so a row below the cursor may have become visible since the last poll
+            long position = Math.max(0, cursor - properties.getSyncOverlap());
+            List<RevocationRecord> records;
+            do {
+                records = backend.fetchSince(position, System.currentTimeMillis(), properties.getSyncBatchSize());
+                for (RevocationRecord record : records) {
+                    filter.add(record.key());
+                    clearedTokens.invalidate(record.key());
+                    position = record.sequence();
+                    cursor = Math.max(cursor, position);
+                }
+                read += records.size();
+            } while (records.size() == properties.getSyncBatchSize());
+        } catch (Exception e) {
+            backendFailures.increment();
+            log.warn("Failed to sync token revocations: {}", e.getMessage());
+        }
+        return read;
+    }
+
+    /**
+     * Rebuild the Bloom filter from the unexpired revocations in the backend,
+     * dropping bits left behind by expired tokens.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.bloom-rebuild-interval:900000}",
+               initialDelayString = "${jwt.revocation.bloom-rebuild-interval:900000}")
+    public synchronized void rebuild() {
+        try {
+            TokenBloomFilter filter = newBloomFilter();
+            long position = 0;
+            int count = 0;
+            List<RevocationRecord> records;
+            do {
+                records = backend.fetchSince(position, System.currentTimeMillis(), properties.getSyncBatchSize());
+                for (RevocationRecord record : records) {
+                    filter.add(record.key());
+                    position = record.sequence();
+                }
+                count += records.size();
+            } while (records.size() == properties.getSyncBatchSize());
+            bloomFilter = filter;
+            cursor = Math.max(cursor, position);
+            log.debug("Revocation Bloom filter rebuilt with {} tokens", count);
+        } catch (Exception e) {
+            backendFailures.increment();
+            log.warn("Failed to rebuild token revocation filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete expired revocations from the shared backend.
+     *
+     * @return the number of revocations deleted
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:300000}",
+               initialDelayString = "${jwt.revocation.purge-interval:300000}")
+    public int purge() {
+        try {
+            int purged = backend.purgeExpired(System.currentTimeMillis());
+            if (purged > 0) {
+                log.debug("Purged {} expired shared revocations", purged);
+            }
+            return purged;
+        } catch (Exception e) {
+            backendFailures.increment();
+            log.warn("Failed to purge expired token revocations: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Drop expired revocations held on this node.
+     */
+    public void cleanupExpired() {
+        localStore.removeExpired(System.currentTimeMillis(), Integer.MAX_VALUE);
+    }
+
+    private TokenBloomFilter newBloomFilter() {
+        return TokenBloomFilter.create(properties.getBloomExpectedInsertions(), properties.getBloomFalsePositiveRate());
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.entity.User;
+import com.example.login.repository.UserRepository;
+import com.example.login.repository.UserRoleRepository;
+import com.example.login.repository.UserRoleRepository.RoleClientClaim;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-node cache of {@link UserAuthzSnapshot}s, keyed by user ID with a secondary
+ * username index, so repeated logins of the same user need no query at all.
+ * Changes made on this node invalidate entries right away (see {@link UserEventHandler});
+ * changes made on other nodes are picked up from the {@code date_updated} columns
+ * of {@code users}, {@code user_roles}, {@code client_roles} and {@code roles}.
+ * Deleted rows leave no timestamp behind, so every entry also expires after
+ * {@code login.authz-cache.expire-after-write}.
+ */
+@Service
+@Slf4j
+public class UserAuthzCache {
+
+    private static final String CHANGED_USERS_SQL = "SELECT id, date_updated FROM users WHERE date_updated >= ?";
+    private static final String CHANGED_USER_ROLES_SQL =
+        "SELECT id_user, date_updated FROM user_roles WHERE date_updated >= ?";
+    private static final String CHANGED_CLIENT_ROLES_SQL =
+        "SELECT MAX(date_updated) FROM client_roles WHERE date_updated >= ?";
+    private static final String CHANGED_ROLES_SQL = "SELECT MAX(date_updated) FROM roles WHERE date_updated >= ?";
+
+    private final UserRepository userRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final TokenEpochService tokenEpochService;
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginConfig.AuthzCacheProperties properties;
+    private final Cache<Long, UserAuthzSnapshot> snapshots;
+    private final Cache<String, Long> usernames;
+    private final Counter reconcileFailures;
+    // Bumped by every invalidation; a load that overlaps one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private long cursorMillis = System.currentTimeMillis();
+
+    public UserAuthzCache(UserRepository userRepository, UserRoleRepository userRoleRepository,
+                          TokenEpochService tokenEpochService, JdbcTemplate jdbcTemplate,
+                          LoginConfig loginConfig, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.tokenEpochService = tokenEpochService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = loginConfig.getAuthzCache();
+        if (properties.isEnabled()) {
+            this.snapshots = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaximumSize())
+                    .expireAfterWrite(Duration.ofMillis(properties.getExpireAfterWrite()))
+                    .recordStats()
+                    .build();
+            this.usernames = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaximumSize())
+                    .expireAfterWrite(Duration.ofMillis(properties.getExpireAfterWrite()))
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "users.authz");
+        } else {
+            this.snapshots = null;
+            this.usernames = null;
+        }
+        this.reconcileFailures = Counter.builder("users.authz.reconcile.failures")
+                .description("Failed reads of users and roles changed on other nodes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resolve a username to a user for authentication, from memory when possible.
+     * Only an exact match of the cached username is served from memory; other
+     * spellings the database collation accepts are looked up as before.
+     *
+     * @param username the trimmed username
+     * @return a detached user carrying the snapshot's fields, or empty if no user has this username
+     */
+    public Optional<User> findByUsername(String username) {
+        if (snapshots == null) {
+            return userRepository.findByUsername(username);
+        }
+        Long id = usernames.getIfPresent(username);
+        UserAuthzSnapshot snapshot = id == null ? null : snapshots.getIfPresent(id);
+        if (snapshot != null && snapshot.username().equals(username)) {
+            return Optional.of(toUser(snapshot));
+        }
+        long loadGeneration = generation.get();
+        return userRepository.findByUsername(username)
+                .map(user -> toUser(store(loadGeneration, user, username)));
+    }
+
+    /**
+     * Get the snapshot of an authenticated user, loading its claims on a miss.
+     *
+     * @param user the user
+     * @return the user's snapshot
+     */
+    public UserAuthzSnapshot get(User user) {
+        if (snapshots == null) {
+            return load(user);
+        }
+        UserAuthzSnapshot snapshot = snapshots.getIfPresent(user.getId());
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long loadGeneration = generation.get();
+        // The caller's copy may predate an invalidation, so only a fresh read is cached
+        User fresh = userRepository.findById(user.getId()).orElse(null);
+        return fresh == null ? load(user) : store(loadGeneration, fresh, fresh.getUsername());
+    }
+
+    /**
+     * Drop the snapshot of one user.
+     *
+     * @param userId the user ID
+     */
+    public void invalidate(Long userId) {
+        if (snapshots == null || userId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        snapshots.invalidate(userId);
+    }
+
+    /**
+     * Drop every snapshot, after a change to roles or client roles.
+     */
+    public void invalidateAll() {
+        if (snapshots == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        snapshots.invalidateAll();
+    }
+
+    /**
+     * Drop snapshots of users whose rows or role assignments changed since the last
+     * reconcile, including on other nodes, and every snapshot if roles changed.
+     *
+     * @return the number of changed rows read
+     */
+    @Scheduled(fixedDelayString = "${login.authz-cache.reconcile-interval:5000}",
+               initialDelayString = "${login.authz-cache.reconcile-interval:5000}")
+    public synchronized int reconcile() {
+        if (snapshots == null) {
+            return 0;
+        }
+        try {
+            // Overlap the window so rows stamped by a node with a lagging clock are not skipped
+            Timestamp since = new Timestamp(cursorMillis - properties.getReconcileOverlap());
+            long[] latest = {cursorMillis};
+            Set<Long> changedUsers = new HashSet<>();
+            int[] read = {0};
+            for (String sql : new String[] {CHANGED_USERS_SQL, CHANGED_USER_ROLES_SQL}) {
+                jdbcTemplate.query(sql, rs -> {
+                    changedUsers.add(rs.getLong(1));
+                    latest[0] = Math.max(latest[0], millis(rs.getTimestamp(2)));
+                    read[0]++;
+                }, since);
+            }
+            boolean rolesChanged = false;
+            for (String sql : new String[] {CHANGED_CLIENT_ROLES_SQL, CHANGED_ROLES_SQL}) {
+                Timestamp changed = jdbcTemplate.queryForObject(sql, Timestamp.class, since);
+                if (changed != null) {
+                    rolesChanged = true;
+                    latest[0] = Math.max(latest[0], changed.getTime());
+                    read[0]++;
+                }
+            }
+            if (rolesChanged) {
+                invalidateAll();
+            } else {
+                changedUsers.forEach(this::invalidate);
+            }
+            cursorMillis = latest[0];
+            return read[0];
+        } catch (Exception e) {
+            reconcileFailures.increment();
+            log.warn("Failed to reconcile user authorization cache: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private UserAuthzSnapshot store(long loadGeneration, User user, String username) {
+        UserAuthzSnapshot snapshot = load(user);
+        snapshots.asMap().compute(snapshot.id(),
+                (id, current) -> generation.get() == loadGeneration ? snapshot : current);
+        usernames.put(username, snapshot.id());
+        return snapshot;
+    }
+
+    private UserAuthzSnapshot load(User user) {
+        Set<String> roles = new LinkedHashSet<>();
+        Set<Long> clientIds = new LinkedHashSet<>();
+        for (RoleClientClaim claim : userRoleRepository.findRoleClientClaimsByIdUser(user.getId())) {
+            roles.add(claim.getRole());
+            clientIds.add(claim.getIdClient());
+        }
+        return UserAuthzSnapshot.of(user, List.copyOf(roles), List.copyOf(clientIds));
+    }
+
+    private User toUser(UserAuthzSnapshot snapshot) {
+        // Sessions revoked since the snapshot was taken are reflected in the epoch table
+        return snapshot.toUser(tokenEpochService.currentEpoch(snapshot.id()));
+    }
+
+    private static long millis(Timestamp timestamp) {
+        return timestamp == null ? 0L : timestamp.getTime();
+    }
+}
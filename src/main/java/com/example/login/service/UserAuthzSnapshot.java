@@ -0,0 +1,79 @@
+package com.example.login.service;
+
+import com.example.login.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable copy of what a login needs to know about a user: account status,
+ * password metadata and the role and client claims of the token. Cached per node
+ * by {@link UserAuthzCache}.
+ */
+public record UserAuthzSnapshot(
+        Long id,
+        Long idClient,
+        String username,
+        String name,
+        String email,
+        User.UserStatus status,
+        User.PasswordType passwordType,
+        String passwordSalt,
+        String passwordHash,
+        long tokenEpoch,
+        LocalDateTime dateCreated,
+        List<String> roles,
+        List<Long> clientIds) {
+
+    public UserAuthzSnapshot {
+        roles = List.copyOf(roles);
+        clientIds = List.copyOf(clientIds);
+    }
+
+    /**
+     * Capture a user loaded from the database together with its claims.
+     *
+     * @param user the user entity
+     * @param roles the distinct role descriptions of the user
+     * @param clientIds the distinct client IDs of the user
+     * @return the snapshot
+     */
+    public static UserAuthzSnapshot of(User user, List<String> roles, List<Long> clientIds) {
+        return new UserAuthzSnapshot(
+                user.getId(),
+                user.getIdClient(),
+                user.getUsername(),
+                user.getName(),
+                user.getEmail(),
+                user.getStatus(),
+                user.getPasswordType(),
+                user.getPasswordSalt(),
+                user.getPasswordHash(),
+                user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L,
+                user.getDateCreated(),
+                roles,
+                clientIds);
+    }
+
+    /**
+     * Build a detached user carrying the snapshot's fields, for the login flow.
+     *
+     * @param currentEpoch the user's current token epoch, which may be newer than the snapshot's
+     * @return a new, unmanaged user instance
+     */
+    public User toUser(long currentEpoch) {
+        return User.builder()
+                .id(id)
+                .idClient(idClient)
+                .username(username)
+                .name(name)
+                .email(email)
+                .status(status)
+                .passwordType(passwordType)
+                .passwordSalt(passwordSalt)
+                .passwordHash(passwordHash)
+                .tokenEpoch(Math.max(tokenEpoch, currentEpoch))
+                .dateCreated(dateCreated)
+                .build();
+    }
+}
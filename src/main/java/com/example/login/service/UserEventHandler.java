@@ -0,0 +1,87 @@
+package com.example.login.service;
+
+import com.example.login.entity.ClientRole;
+import com.example.login.entity.Role;
+import com.example.login.entity.User;
+import com.example.login.entity.UserRole;
+import com.example.login.security.RoleAuthorityTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps in-memory user data in step with changes made through the Spring Data REST
+ * resources for users, user roles, client roles and roles.
+ */
+@Component
+@RepositoryEventHandler
+@RequiredArgsConstructor
+public class UserEventHandler {
+
+    private final UserIdentifierFilter identifierFilter;
+    private final UserAuthzCache authzCache;
+    private final RoleAuthorityTable roleAuthorityTable;
+
+    @HandleAfterCreate
+    public void afterCreate(User user) {
+        identifierFilter.add(user.getUsername(), user.getEmail());
+    }
+
+    @HandleAfterSave
+    public void afterSave(User user) {
+        identifierFilter.add(user.getUsername(), user.getEmail());
+        authzCache.invalidate(user.getId());
+    }
+
+    @HandleAfterDelete
+    public void afterDelete(User user) {
+        authzCache.invalidate(user.getId());
+    }
+
+    @HandleAfterCreate
+    public void afterCreate(UserRole userRole) {
+        authzCache.invalidate(userRole.getIdUser());
+    }
+
+    @HandleAfterSave
+    public void afterSave(UserRole userRole) {
+        authzCache.invalidate(userRole.getIdUser());
+    }
+
+    @HandleAfterDelete
+    public void afterDelete(UserRole userRole) {
+        authzCache.invalidate(userRole.getIdUser());
+    }
+
+    // Client roles and roles are shared by many users, so any change drops every snapshot
+
+    @HandleAfterSave
+    public void afterSave(ClientRole clientRole) {
+        authzCache.invalidateAll();
+    }
+
+    @HandleAfterDelete
+    public void afterDelete(ClientRole clientRole) {
+        authzCache.invalidateAll();
+    }
+
+    @HandleAfterCreate
+    public void afterCreate(Role role) {
+        roleAuthorityTable.refresh();
+    }
+
+    @HandleAfterSave
+    public void afterSave(Role role) {
+        authzCache.invalidateAll();
+        roleAuthorityTable.refresh();
+    }
+
+    @HandleAfterDelete
+    public void afterDelete(Role role) {
+        authzCache.invalidateAll();
+        roleAuthorityTable.refresh();
+    }
+}
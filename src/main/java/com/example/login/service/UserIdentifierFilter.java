@@ -0,0 +1,209 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.security.TokenBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Bloom filter of every username and email in {@code users}, so logins with an
+ * identifier that matches no account are rejected without a database query.
+ * Identifiers are normalised more loosely than MySQL compares them (trimmed,
+ * lower-cased, accents stripped), which can only add false positives, never
+ * reject an existing account. The filter follows {@code users.date_updated} for
+ * accounts created or renamed on other nodes and is rebuilt periodically to drop
+ * deleted ones. Until the first build completes every identifier is let through.
+ */
+@Service
+@Slf4j
+public class UserIdentifierFilter {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM users";
+    private static final String SELECT_ALL_SQL = "SELECT username, email, date_updated FROM users";
+    private static final String SELECT_CHANGED_SQL =
+        "SELECT username, email, date_updated FROM users WHERE date_updated >= ?";
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginConfig.IdentifierFilterProperties properties;
+    private final Counter rejectedCounter;
+    private final Counter failureCounter;
+
+    private volatile TokenBloomFilter filter;
+    private volatile TokenBloomFilter building;
+    private long cursorMillis;
+
+    public UserIdentifierFilter(JdbcTemplate jdbcTemplate, LoginConfig loginConfig, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = loginConfig.getIdentifierFilter();
+        this.rejectedCounter = Counter.builder("users.identifier-filter.rejected")
+                .description("Logins rejected because the identifier matches no user")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("users.identifier-filter.failures")
+                .description("Failed identifier filter builds and syncs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check whether a username or email may belong to an existing user.
+     *
+     * @param identifier the username or email
+     * @return false if no user has this identifier
+     */
+    public boolean mightExist(String identifier) {
+        TokenBloomFilter current = filter;
+        if (!properties.isEnabled() || current == null || identifier == null) {
+            return true;
+        }
+        long[] digest = digest(identifier);
+        if (current.mightContain(digest[0], digest[1])) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Add the identifiers of a user created or changed on this node.
+     *
+     * @param identifiers usernames or emails; nulls are ignored
+     */
+    public void add(String... identifiers) {
+        for (String identifier : identifiers) {
+            if (identifier == null) {
+                continue;
+            }
+            long[] digest = digest(identifier);
+            TokenBloomFilter current = filter;
+            if (current != null) {
+                current.add(digest[0], digest[1]);
+            }
+            // A rebuild in progress may have read the table before this user was saved
+            TokenBloomFilter next = building;
+            if (next != null) {
+                next.add(digest[0], digest[1]);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the filter from every user, dropping identifiers of deleted or renamed users.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${login.identifier-filter.rebuild-interval:3600000}",
+               initialDelayString = "${login.identifier-filter.rebuild-interval:3600000}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            Long users = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+            // Two identifiers per user, with headroom for accounts created before the next rebuild
+            long expected = Math.max(properties.getExpectedInsertions(), (users == null ? 0 : users) * 3);
+            TokenBloomFilter next = TokenBloomFilter.create(expected, properties.getFalsePositiveRate());
+            building = next;
+            long[] latest = {cursorMillis};
+            jdbcTemplate.query(SELECT_ALL_SQL, rs -> {
+                addRow(next, rs.getString(1), rs.getString(2));
+                latest[0] = Math.max(latest[0], millis(rs.getTimestamp(3)));
+            });
+            filter = next;
+            cursorMillis = latest[0];
+            log.debug("User identifier filter rebuilt for {} users", users);
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.warn("Failed to rebuild user identifier filter: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Add identifiers of users created or changed since the last sync, including on other nodes.
+     *
+     * @return the number of users read
+     */
+    @Scheduled(fixedDelayString = "${login.identifier-filter.sync-interval:2000}",
+               initialDelayString = "${login.identifier-filter.sync-interval:2000}")
+    public synchronized int sync() {
+        TokenBloomFilter current = filter;
+        if (!properties.isEnabled() || current == null) {
+            return 0;
+        }
+        try {
+            // Overlap the window so rows stamped by a node with a lagging clock are not skipped
+            Timestamp since = new Timestamp(cursorMillis - properties.getSyncOverlap());
+            long[] latest = {cursorMillis};
+            int[] read = {0};
+            jdbcTemplate.query(SELECT_CHANGED_SQL, rs -> {
+                addRow(current, rs.getString(1), rs.getString(2));
+                latest[0] = Math.max(latest[0], millis(rs.getTimestamp(3)));
+                read[0]++;
+            }, since);
+            cursorMillis = latest[0];
+            return read[0];
+        } catch (Exception e) {
+            failureCounter.increment();
+            log.warn("Failed to sync user identifier filter: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * @return true once the filter has been built and is rejecting unknown identifiers
+     */
+    public boolean isActive() {
+        return properties.isEnabled() && filter != null;
+    }
+
+    private static void addRow(TokenBloomFilter target, String username, String email) {
+        for (String identifier : new String[] {username, email}) {
+            if (identifier != null) {
+                long[] digest = digest(identifier);
+                target.add(digest[0], digest[1]);
+            }
+        }
+    }
+
+    private static long millis(Timestamp timestamp) {
+        return timestamp == null ? 0L : timestamp.getTime();
+    }
+
+    /**
+     * 128-bit digest of the normalised identifier, as the two hashes of the filter.
+     */
+    static long[] digest(String identifier) {
+        String normalized = COMBINING_MARKS.matcher(Normalizer.normalize(identifier.strip(), Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        byte[] hash = SHA_256.get().digest(normalized.getBytes(StandardCharsets.UTF_8));
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < 8; i++) {
+            high = (high << 8) | (hash[i] & 0xFF);
+            low = (low << 8) | (hash[i + 8] & 0xFF);
+        }
+        return new long[] {high, low};
+    }
+}
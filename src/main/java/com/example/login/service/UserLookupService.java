@@ -1,9 +1,7 @@
 package com.example.login.service;
 
 import com.example.login.entity.User;
-import com.example.login.entity.UserRole;
 import com.example.login.repository.UserRepository;
-import com.example.login.repository.UserRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,11 +10,16 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Service for user lookup and authentication operations.
  * Provides methods to find users and validate their credentials.
+ * The authenticate methods are deliberately not transactional: each lookup runs
+ * in its own short repository transaction, so no connection is held while the
+ * password is hashed, and unknown identifiers rejected by the
+ * {@link UserIdentifierFilter} never acquire one. Users logging in by username
+ * again, and the claims of every authenticated user, are served from the
+ * {@link UserAuthzCache}.
  */
 @Service
 @RequiredArgsConstructor
@@ -24,8 +27,11 @@ import java.util.stream.Collectors;
 public class UserLookupService {
 
     private final UserRepository userRepository;
-    private final UserRoleRepository userRoleRepository;
     private final PasswordService passwordService;
+    private final LastLoginWriter lastLoginWriter;
+    private final PasswordRehashService passwordRehashService;
+    private final UserIdentifierFilter identifierFilter;
+    private final UserAuthzCache authzCache;
 
     /**
      * Find a user by username.
@@ -85,7 +91,6 @@ public class UserLookupService {
      * @param password the plain text password
      * @return Optional containing the user if authentication succeeds, empty otherwise
      */
-    @Transactional(readOnly = true)
     public Optional<User> authenticateByUsername(String username, String password) {
         if (username == null || username.trim().isEmpty()) {
             log.warn("Authentication attempted with null or empty username");
@@ -99,35 +104,16 @@ public class UserLookupService {
 
         log.debug("Authenticating user: {}", username);
         
-        Optional<User> userOpt = findByUsername(username);
+        Optional<User> userOpt = identifierFilter.mightExist(username)
+                ? authzCache.findByUsername(username.trim())
+                : Optional.empty();
         if (userOpt.isEmpty()) {
             log.warn("Authentication failed: user not found for username: {}", username);
+            passwordService.verifyDummy(password);
             return Optional.empty();
         }
 
-        User user = userOpt.get();
-        
-        // Check if user is active
-        if (user.getStatus() != User.UserStatus.ACTIVE) {
-            log.warn("Authentication failed: user {} is not active (status: {})", username, user.getStatus());
-            return Optional.empty();
-        }
-
-        // Validate password
-        boolean isValidPassword = passwordService.isValid(
-            user.getPasswordType(),
-            user.getPasswordSalt(),
-            password,
-            user.getPasswordHash()
-        );
-
-        if (!isValidPassword) {
-            log.warn("Authentication failed: invalid password for user: {}", username);
-            return Optional.empty();
-        }
-
-        log.info("Authentication successful for user: {}", username);
-        return Optional.of(user);
+        return checkCredentials(userOpt.get(), password, username);
     }
 
     /**
@@ -137,7 +123,6 @@ public class UserLookupService {
      * @param password the plain text password
      * @return Optional containing the user if authentication succeeds, empty otherwise
      */
-    @Transactional(readOnly = true)
     public Optional<User> authenticateByEmail(String email, String password) {
         if (email == null || email.trim().isEmpty()) {
             log.warn("Authentication attempted with null or empty email");
@@ -151,17 +136,77 @@ public class UserLookupService {
 
         log.debug("Authenticating user by email: {}", email);
         
-        Optional<User> userOpt = findByEmail(email);
+        Optional<User> userOpt = identifierFilter.mightExist(email) ? findByEmail(email) : Optional.empty();
         if (userOpt.isEmpty()) {
             log.warn("Authentication failed: user not found for email: {}", email);
+            passwordService.verifyDummy(password);
+            return Optional.empty();
+        }
+
+        return checkCredentials(userOpt.get(), password, email);
+    }
+
+    /**
+     * Authenticate a user by username or email and password.
+     * The identifier is resolved with a single query and the password is verified
+     * at most once. Identifiers without '@' can only be usernames; when both a
+     * username and an email match, the username match wins.
+     * 
+     * @param identifier the username or email
+     * @param password the plain text password
+     * @return Optional containing the user if authentication succeeds, empty otherwise
+     */
+    public Optional<User> authenticate(String identifier, String password) {
+        if (identifier == null || identifier.trim().isEmpty()) {
+            log.warn("Authentication attempted with null or empty username/email");
+            return Optional.empty();
+        }
+        
+        if (password == null || password.isEmpty()) {
+            log.warn("Authentication attempted with null or empty password for: {}", identifier);
             return Optional.empty();
         }
 
-        User user = userOpt.get();
+        log.debug("Authenticating user by username/email: {}", identifier);
         
+        String trimmed = identifier.trim();
+        Optional<User> userOpt;
+        if (!identifierFilter.mightExist(trimmed)) {
+            // Unknown identifier: answer from memory, without a query or a connection
+            userOpt = Optional.empty();
+        } else if (trimmed.indexOf('@') < 0) {
+            userOpt = authzCache.findByUsername(trimmed);
+        } else {
+            List<User> matches = userRepository.findByUsernameOrEmail(trimmed);
+            userOpt = matches.stream()
+                    .filter(user -> trimmed.equals(user.getUsername()))
+                    .findFirst()
+                    .or(() -> matches.stream().findFirst());
+        }
+
+        if (userOpt.isEmpty()) {
+            log.warn("Authentication failed: user not found for: {}", identifier);
+            passwordService.verifyDummy(password);
+            return Optional.empty();
+        }
+
+        return checkCredentials(userOpt.get(), password, identifier);
+    }
+
+    /**
+     * Check that a resolved user is active and the password matches.
+     * 
+     * @param user the user resolved from the identifier
+     * @param password the plain text password
+     * @param identifier the identifier used to log in, for logging
+     * @return Optional containing the user if the credentials are valid, empty otherwise
+     */
+    private Optional<User> checkCredentials(User user, String password, String identifier) {
         // Check if user is active
         if (user.getStatus() != User.UserStatus.ACTIVE) {
-            log.warn("Authentication failed: user {} is not active (status: {})", email, user.getStatus());
+            log.warn("Authentication failed: user {} is not active (status: {})", identifier, user.getStatus());
+            // Answering without a hash would let inactive and suspended accounts be enumerated by timing
+            passwordService.verifyDummy(password);
             return Optional.empty();
         }
 
@@ -172,22 +217,31 @@ public class UserLookupService {
             password,
             user.getPasswordHash()
         );
+        if (!passwordService.isKeyStretching(user.getPasswordType())) {
+            // A legacy MD5/SHA hash answers in microseconds and would single out its account
+            // against unknown identifiers, which pay for a policy hash; pay for one here too
+            passwordService.verifyDummy(password);
+        }
 
         if (!isValidPassword) {
-            log.warn("Authentication failed: invalid password for user: {}", email);
+            log.warn("Authentication failed: invalid password for user: {}", identifier);
             return Optional.empty();
         }
 
-        log.info("Authentication successful for user: {}", email);
+        // Move legacy hashes to the target policy without a forced reset
+        passwordRehashService.rehashIfNeeded(user, password);
+
+        log.info("Authentication successful for user: {}", identifier);
         return Optional.of(user);
     }
 
     /**
      * Update the last login timestamp for a user.
+     * The timestamp is set on the given instance right away and written to the
+     * database in the background by {@link LastLoginWriter}.
      * 
      * @param user the user to update
      */
-    @Transactional
     public void updateLastLogin(User user) {
         if (user == null) {
             log.warn("Attempted to update last login for null user");
@@ -195,9 +249,11 @@ public class UserLookupService {
         }
         
         log.debug("Updating last login for user: {}", user.getUsername());
-        user.setDateLastLogin(LocalDateTime.now());
-        userRepository.save(user);
-        log.info("Last login updated for user: {}", user.getUsername());
+        LocalDateTime now = LocalDateTime.now();
+        user.setDateLastLogin(now);
+        if (lastLoginWriter.record(user.getId(), now)) {
+            log.info("Last login updated for user: {}", user.getUsername());
+        }
     }
 
     /**
@@ -257,13 +313,30 @@ public class UserLookupService {
         );
     }
 
+    /**
+     * Get the roles and client IDs for JWT token generation.
+     * Served from the {@link UserAuthzCache}; a miss costs a single query.
+     * 
+     * @param user the user to get claims for
+     * @return the distinct role descriptions and client IDs of the user
+     */
+    public LoginClaims getLoginClaims(User user) {
+        if (user == null || user.getId() == null) {
+            log.warn("Attempted to get login claims for null user or user without ID");
+            return new LoginClaims(List.of(), List.of());
+        }
+
+        log.debug("Getting login claims for user: {}", user.getUsername());
+        UserAuthzSnapshot snapshot = authzCache.get(user);
+        return new LoginClaims(snapshot.roles(), snapshot.clientIds());
+    }
+
     /**
      * Get user roles for JWT token generation.
      * 
      * @param user the user to get roles for
      * @return list of role descriptions
      */
-    @Transactional(readOnly = true)
     public List<String> getUserRoles(User user) {
         if (user == null || user.getId() == null) {
             log.warn("Attempted to get roles for null user or user without ID");
@@ -271,12 +344,7 @@ public class UserLookupService {
         }
         
         log.debug("Getting roles for user: {}", user.getUsername());
-        List<UserRole> userRoles = userRoleRepository.findByIdUser(user.getId());
-        
-        return userRoles.stream()
-                .map(userRole -> userRole.getClientRole().getRole().getDescription())
-                .distinct()
-                .collect(Collectors.toList());
+        return authzCache.get(user).roles();
     }
 
     /**
@@ -285,7 +353,6 @@ public class UserLookupService {
      * @param user the user to get client IDs for
      * @return list of client IDs
      */
-    @Transactional(readOnly = true)
     public List<Long> getUserClientIds(User user) {
         if (user == null || user.getId() == null) {
             log.warn("Attempted to get client IDs for null user or user without ID");
@@ -293,11 +360,12 @@ public class UserLookupService {
         }
         
         log.debug("Getting client IDs for user: {}", user.getUsername());
-        List<UserRole> userRoles = userRoleRepository.findByIdUser(user.getId());
-        
-        return userRoles.stream()
-                .map(UserRole::getIdClient)
-                .distinct()
-                .collect(Collectors.toList());
+        return authzCache.get(user).clientIds();
+    }
+
+    /**
+     * Role and client ID claims of a user.
+     */
+    public record LoginClaims(List<String> roles, List<Long> clientIds) {
     }
 }
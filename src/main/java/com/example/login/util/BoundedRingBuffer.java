@@ -0,0 +1,124 @@
+package com.example.login.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free bounded multi-producer queue backed by a power-of-two ring
+ * (Dmitry Vyukov's bounded MPMC design). Each slot carries a sequence number
+ * that tells producers and consumers whether the slot is free or filled, so
+ * neither side ever blocks: {@link #offer} fails immediately when the ring is full.
+ *
+ * @param <E> the element type
+ */
+public final class BoundedRingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of elements, rounded up to a power of two
+     */
+    public BoundedRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an element if there is room.
+     *
+     * @param element the element, not null
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+        elements[index] = element;
+        // The volatile sequence write publishes the element to consumers
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Remove the oldest element.
+     *
+     * @return the element, or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position;
+        int index;
+        while (true) {
+            position = head.get();
+            index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return null;
+            }
+        }
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.set(index, position + mask + 1);
+        return element;
+    }
+
+    /**
+     * Move up to {@code maxElements} elements into the given collection.
+     *
+     * @param target the collection to add to
+     * @param maxElements the maximum number of elements to move
+     * @return the number of elements moved
+     */
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        int drained = 0;
+        E element;
+        while (drained < maxElements && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return the approximate number of elements in the buffer
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    /**
+     * @return the number of slots in the ring
+     */
+    public int capacity() {
+        return elements.length;
+    }
+}
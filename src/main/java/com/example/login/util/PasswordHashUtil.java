@@ -1,22 +1,50 @@
 package com.example.login.util;
 
 import com.example.login.entity.User.PasswordType;
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Utility class for password hashing and validation operations.
- * Supports multiple hashing algorithms: BCRYPT, SHA256, MD5, and SHA512.
+ * Supports multiple hashing algorithms: BCRYPT, SHA256, MD5, SHA512, ARGON2ID and PBKDF2.
+ * ARGON2ID and PBKDF2 keep their cost parameters in front of the salt,
+ * e.g. {@code m=19456,t=2,p=1$<hex salt>} or {@code i=600000$<hex salt>}.
  */
 @Component
 public class PasswordHashUtil {
 
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final ThreadLocal<DigestScratch> DIGEST_SCRATCH = ThreadLocal.withInitial(DigestScratch::new);
+
+    /** Argon2id defaults (OWASP minimum: 19 MiB, 2 passes, 1 lane). */
+    public static final int ARGON2_DEFAULT_MEMORY_KB = 19456;
+    public static final int ARGON2_DEFAULT_ITERATIONS = 2;
+    public static final int ARGON2_DEFAULT_PARALLELISM = 1;
+
+    /** PBKDF2-HMAC-SHA256 default iteration count (OWASP). */
+    public static final int PBKDF2_DEFAULT_ITERATIONS = 600_000;
+
+    /** BCrypt default log rounds, as used by {@link BCrypt#gensalt()}. */
+    public static final int BCRYPT_DEFAULT_COST = 10;
+
+    private static final int KDF_SALT_BYTES = 16;
+    private static final int KDF_HASH_BYTES = 32;
+    private static final char PARAMETER_SEPARATOR = '$';
 
     /**
      * Generate a random salt as a hexadecimal string.
@@ -49,9 +77,9 @@ public class PasswordHashUtil {
 
         return switch (type) {
             case BCRYPT -> BCrypt.hashpw(password, salt);
-            case SHA256 -> generateSHAHash(password, salt, "SHA-256");
-            case MD5 -> generateSHAHash(password, salt, "MD5");
-            case SHA512 -> generateSHAHash(password, salt, "SHA-512");
+            case SHA256, MD5, SHA512 -> generateSHAHash(password, salt, ShaAlgorithm.of(type));
+            case ARGON2ID -> generateArgon2Hash(password, salt);
+            case PBKDF2 -> generatePbkdf2Hash(password, salt);
         };
     }
 
@@ -72,16 +100,9 @@ public class PasswordHashUtil {
         try {
             return switch (type) {
                 case BCRYPT -> BCrypt.checkpw(password, hash);
-                case SHA256, MD5, SHA512 -> {
-                    String algorithm = switch (type) {
-                        case SHA256 -> "SHA-256";
-                        case MD5 -> "MD5";
-                        case SHA512 -> "SHA-512";
-                        default -> throw new IllegalArgumentException("Unsupported algorithm: " + type);
-                    };
-                    String computedHash = generateSHAHash(password, salt, algorithm);
-                    yield computedHash.equals(hash);
-                }
+                case SHA256, MD5, SHA512 -> isValidSHAHash(password, salt, hash, ShaAlgorithm.of(type));
+                case ARGON2ID -> constantTimeEquals(generateArgon2Hash(password, salt), hash);
+                case PBKDF2 -> constantTimeEquals(generatePbkdf2Hash(password, salt), hash);
             };
         } catch (Exception e) {
             return false;
@@ -93,20 +114,222 @@ public class PasswordHashUtil {
      * 
      * @param password the plain text password
      * @param salt the salt to use
-     * @param algorithm the SHA algorithm name
+     * @param algorithm the SHA algorithm
      * @return the hashed password
      */
-    private static String generateSHAHash(String password, String salt, String algorithm) {
+    private static String generateSHAHash(String password, String salt, ShaAlgorithm algorithm) {
+        return HexFormat.of().formatHex(DIGEST_SCRATCH.get().digest(algorithm, salt, password));
+    }
+
+    /**
+     * Validate a password against a SHA hash without allocating: the digest, the
+     * decoded salt and hash and the encoded password all live in per-thread buffers,
+     * and the raw digests are compared in constant time.
+     * 
+     * @param password the plain text password
+     * @param salt the salt used for hashing
+     * @param hash the stored hexadecimal hash
+     * @param algorithm the SHA algorithm
+     * @return true if the password matches the hash
+     */
+    private static boolean isValidSHAHash(String password, String salt, String hash, ShaAlgorithm algorithm) {
+        if (hash.length() != algorithm.length * 2) {
+            return false;
+        }
+        DigestScratch scratch = DIGEST_SCRATCH.get();
+        byte[] stored = scratch.stored[algorithm.ordinal()];
+        if (decodeHex(hash, stored) < 0) {
+            return false;
+        }
+        return MessageDigest.isEqual(scratch.digest(algorithm, salt, password), stored);
+    }
+
+    /**
+     * Decode a hexadecimal string into the start of a buffer.
+     * 
+     * @return the number of bytes written, or -1 if the string is not valid hex
+     */
+    private static int decodeHex(String hex, byte[] out) {
+        int length = hex.length();
+        if ((length & 1) != 0 || length / 2 > out.length) {
+            return -1;
+        }
+        for (int i = 0; i < length; i += 2) {
+            int high = Character.digit(hex.charAt(i), 16);
+            int low = Character.digit(hex.charAt(i + 1), 16);
+            if (high < 0 || low < 0) {
+                return -1;
+            }
+            out[i / 2] = (byte) ((high << 4) | low);
+        }
+        return length / 2;
+    }
+
+    /**
+     * Encode a string as UTF-8 into the start of a buffer, replacing unpaired
+     * surrogates with '?' like {@link String#getBytes(java.nio.charset.Charset)}.
+     * The buffer must hold at least three bytes per char.
+     * 
+     * @return the number of bytes written
+     */
+    private static int encodeUtf8(String value, byte[] out) {
+        int position = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out[position++] = '?';
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Generate an Argon2id hash from a parameterised salt.
+     * 
+     * @param password the plain text password
+     * @param salt the salt with its cost parameters
+     * @return the hashed password
+     */
+    private static String generateArgon2Hash(String password, String salt) {
+        Map<String, Integer> cost = costParameters(salt);
+        Argon2Parameters parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+                .withSalt(HexFormat.of().parseHex(saltValue(salt)))
+                .withMemoryAsKB(requireCost(cost, "m"))
+                .withIterations(requireCost(cost, "t"))
+                .withParallelism(requireCost(cost, "p"))
+                .build();
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+        byte[] hash = new byte[KDF_HASH_BYTES];
+        generator.generateBytes(password.getBytes(StandardCharsets.UTF_8), hash);
+        return HexFormat.of().formatHex(hash);
+    }
+
+    /**
+     * Generate a PBKDF2-HMAC-SHA256 hash from a parameterised salt.
+     * 
+     * @param password the plain text password
+     * @param salt the salt with its iteration count
+     * @return the hashed password
+     */
+    private static String generatePbkdf2Hash(String password, String salt) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), HexFormat.of().parseHex(saltValue(salt)),
+                requireCost(costParameters(salt), "i"), KDF_HASH_BYTES * 8);
         try {
-            MessageDigest digest = MessageDigest.getInstance(algorithm);
-            digest.update(HexFormat.of().parseHex(salt));
-            byte[] hash = digest.digest(password.getBytes());
+            byte[] hash = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
             return HexFormat.of().formatHex(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalArgumentException("Unsupported algorithm: " + algorithm, e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Unsupported algorithm: PBKDF2WithHmacSHA256", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Generate an Argon2id salt carrying the given cost parameters.
+     * 
+     * @param memoryKb memory cost in KiB
+     * @param iterations number of passes
+     * @param parallelism number of lanes
+     * @return the parameterised salt
+     */
+    public static String generateArgon2Salt(int memoryKb, int iterations, int parallelism) {
+        return "m=" + memoryKb + ",t=" + iterations + ",p=" + parallelism
+                + PARAMETER_SEPARATOR + generateRandomSaltHex(KDF_SALT_BYTES);
+    }
+
+    /**
+     * Generate a PBKDF2 salt carrying the given iteration count.
+     * 
+     * @param iterations number of HMAC iterations
+     * @return the parameterised salt
+     */
+    public static String generatePbkdf2Salt(int iterations) {
+        return "i=" + iterations + PARAMETER_SEPARATOR + generateRandomSaltHex(KDF_SALT_BYTES);
+    }
+
+    /**
+     * Generate a BCrypt salt with the given number of log rounds.
+     * 
+     * @param cost log2 of the number of rounds (4-31)
+     * @return the BCrypt salt
+     */
+    public static String generateBcryptSalt(int cost) {
+        return BCrypt.gensalt(cost);
+    }
+
+    /**
+     * Read the log rounds of a BCrypt salt or hash such as {@code $2a$10$...}.
+     * 
+     * @param salt the BCrypt salt
+     * @return the log rounds, or 0 if the salt is not a BCrypt salt
+     */
+    public static int bcryptCost(String salt) {
+        if (salt == null || salt.length() < 7 || salt.charAt(0) != '$' || salt.charAt(6) != '$') {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(salt.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return 0;
         }
     }
 
+    /**
+     * Read the cost parameters stored in front of a parameterised salt.
+     * 
+     * @param salt the salt of an ARGON2ID or PBKDF2 password
+     * @return the cost parameters by name, empty if the salt has none
+     */
+    public static Map<String, Integer> costParameters(String salt) {
+        Map<String, Integer> cost = new LinkedHashMap<>();
+        int separator = salt == null ? -1 : salt.indexOf(PARAMETER_SEPARATOR);
+        if (separator <= 0) {
+            return cost;
+        }
+        for (String parameter : salt.substring(0, separator).split(",")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                cost.put(parameter.substring(0, equals), Integer.parseInt(parameter.substring(equals + 1)));
+            }
+        }
+        return cost;
+    }
+
+    private static String saltValue(String salt) {
+        return salt.substring(salt.indexOf(PARAMETER_SEPARATOR) + 1);
+    }
+
+    private static int requireCost(Map<String, Integer> cost, String name) {
+        Integer value = cost.get(name);
+        if (value == null || value <= 0) {
+            throw new IllegalArgumentException("Missing cost parameter: " + name);
+        }
+        return value;
+    }
+
+    private static boolean constantTimeEquals(String computedHash, String hash) {
+        return MessageDigest.isEqual(computedHash.getBytes(StandardCharsets.US_ASCII),
+                hash.getBytes(StandardCharsets.US_ASCII));
+    }
+
     /**
      * Generate a salt appropriate for the given password type.
      * 
@@ -117,6 +340,9 @@ public class PasswordHashUtil {
         return switch (type) {
             case BCRYPT -> BCrypt.gensalt();
             case SHA256, MD5, SHA512 -> generateRandomSaltHex(16);
+            case ARGON2ID -> generateArgon2Salt(ARGON2_DEFAULT_MEMORY_KB, ARGON2_DEFAULT_ITERATIONS,
+                    ARGON2_DEFAULT_PARALLELISM);
+            case PBKDF2 -> generatePbkdf2Salt(PBKDF2_DEFAULT_ITERATIONS);
         };
     }
 
@@ -134,6 +360,94 @@ public class PasswordHashUtil {
         return new PasswordHashResult(salt, hash);
     }
 
+    /**
+     * Salted digest algorithms, with their digest length in bytes.
+     */
+    private enum ShaAlgorithm {
+        MD5("MD5", 16),
+        SHA256("SHA-256", 32),
+        SHA512("SHA-512", 64);
+
+        private final String jcaName;
+        private final int length;
+
+        ShaAlgorithm(String jcaName, int length) {
+            this.jcaName = jcaName;
+            this.length = length;
+        }
+
+        static ShaAlgorithm of(PasswordType type) {
+            return switch (type) {
+                case MD5 -> MD5;
+                case SHA256 -> SHA256;
+                case SHA512 -> SHA512;
+                default -> throw new IllegalArgumentException("Unsupported algorithm: " + type);
+            };
+        }
+    }
+
+    /**
+     * Per-thread digests and buffers reused by every SHA hash on that thread.
+     */
+    private static final class DigestScratch {
+        private final MessageDigest[] digests = new MessageDigest[ShaAlgorithm.values().length];
+        private final byte[][] computed = new byte[ShaAlgorithm.values().length][];
+        private final byte[][] stored = new byte[ShaAlgorithm.values().length][];
+        private byte[] salt = new byte[32];
+        private byte[] password = new byte[96];
+
+        private DigestScratch() {
+            for (ShaAlgorithm algorithm : ShaAlgorithm.values()) {
+                computed[algorithm.ordinal()] = new byte[algorithm.length];
+                stored[algorithm.ordinal()] = new byte[algorithm.length];
+            }
+        }
+
+        /**
+         * Digest salt and password into this thread's buffer for the algorithm.
+         * The returned array is overwritten by the next call on the same thread.
+         */
+        private byte[] digest(ShaAlgorithm algorithm, String saltHex, String plainPassword) {
+            if (saltHex.length() / 2 > salt.length) {
+                salt = new byte[saltHex.length() / 2];
+            }
+            int saltLength = decodeHex(saltHex, salt);
+            if (saltLength < 0) {
+                throw new IllegalArgumentException("Salt must be a hexadecimal string");
+            }
+            if (plainPassword.length() * 3 > password.length) {
+                password = new byte[plainPassword.length() * 3];
+            }
+            int passwordLength = encodeUtf8(plainPassword, password);
+            MessageDigest digest = digest(algorithm);
+            byte[] out = computed[algorithm.ordinal()];
+            try {
+                digest.update(salt, 0, saltLength);
+                digest.update(password, 0, passwordLength);
+                digest.digest(out, 0, out.length);
+            } catch (DigestException e) {
+                digest.reset();
+                throw new IllegalStateException("Digest failed: " + algorithm.jcaName, e);
+            } finally {
+                Arrays.fill(password, 0, passwordLength, (byte) 0);
+            }
+            return out;
+        }
+
+        private MessageDigest digest(ShaAlgorithm algorithm) {
+            MessageDigest digest = digests[algorithm.ordinal()];
+            if (digest == null) {
+                try {
+                    digest = MessageDigest.getInstance(algorithm.jcaName);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalArgumentException("Unsupported algorithm: " + algorithm.jcaName, e);
+                }
+                digests[algorithm.ordinal()] = digest;
+            }
+            return digest;
+        }
+    }
+
     /**
      * Result class containing salt and hash for password operations.
      */
@@ -0,0 +1,6 @@
+-- Token epoch reloads select revoked users (token_epoch > 0) changed since the
+-- last reload; the authorization cache and identifier filter follow date_updated
+-- too. Index both so these polls stop scanning the whole table.
+ALTER TABLE `users`
+  ADD KEY `ix_users_token_epoch` (`token_epoch`),
+  ADD KEY `ix_users_date_updated` (`date_updated`);
@@ -0,0 +1,4 @@
+-- Per-user token epoch: tokens issued under an older epoch are rejected,
+-- so bumping this value revokes every outstanding session of the user.
+ALTER TABLE `users`
+  ADD COLUMN `token_epoch` BIGINT UNSIGNED NOT NULL DEFAULT 0 AFTER `status`;
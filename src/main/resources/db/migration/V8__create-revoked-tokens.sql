@@ -0,0 +1,12 @@
+-- Cluster-wide token revocations, keyed by the 128-bit token ID (jti) or digest.
+-- Rows are only needed until the token expires and are purged afterwards.
+CREATE TABLE IF NOT EXISTS `revoked_tokens` (
+  `id`            BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  `token_hi`      BIGINT          NOT NULL,
+  `token_lo`      BIGINT          NOT NULL,
+  `expires_at_ms` BIGINT          NOT NULL,
+  `date_created`  TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uq_revoked_tokens_token` (`token_hi`, `token_lo`),
+  KEY `ix_revoked_tokens_expires_at` (`expires_at_ms`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,4 @@
+-- Key-derivation password types. Their cost parameters are stored with the
+-- salt (e.g. "m=19456,t=2,p=1$<hex salt>"), so password_salt needs no new column.
+ALTER TABLE `users`
+  MODIFY COLUMN `password_type` ENUM('BCRYPT','SHA256','MD5','SHA512','ARGON2ID','PBKDF2') NOT NULL DEFAULT 'MD5';
@@ -0,0 +1,36 @@
+package com.example.login.actuator;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.entity.User.PasswordType;
+import com.example.login.service.PasswordCostCalibrator;
+import com.example.login.service.PasswordCostCalibrator.Calibration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordCostEndpointTest {
+
+    @Test
+    void passwordCost_ShouldReportPolicyAndCalibrations() {
+        // Given
+        LoginConfig loginConfig = new LoginConfig();
+        PasswordCostCalibrator calibrator = mock(PasswordCostCalibrator.class);
+        Calibration calibration = new Calibration(PasswordType.ARGON2ID, Map.of("m", 19456, "t", 3, "p", 1),
+                35.0, 52.5, 50, 0L);
+        when(calibrator.getCalibrations()).thenReturn(Map.of(PasswordType.ARGON2ID, calibration));
+
+        // When
+        Map<String, Object> response = new PasswordCostEndpoint(calibrator, loginConfig).passwordCost();
+
+        // Then
+        assertThat(response)
+                .containsEntry("targetType", PasswordType.ARGON2ID)
+                .containsEntry("targetMillis", 50L)
+                .containsEntry("calibrations", Map.of(PasswordType.ARGON2ID, calibration))
+                .containsKey("availableProcessors");
+    }
+}
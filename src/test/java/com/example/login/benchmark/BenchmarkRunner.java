@@ -0,0 +1,52 @@
+package com.example.login.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Runs the JMH benchmarks of this package once per configured thread count,
+ * with the GC profiler, writing one JSON result file per run.
+ * Used by the {@code benchmark} Maven profile:
+ * {@code mvn -Pbenchmark verify -Dbenchmark.threads=1,4,16 -Dbenchmark.include=JwtService}.
+ * <ul>
+ *   <li>{@code benchmark.include} - regular expression of benchmarks to run (default: all)</li>
+ *   <li>{@code benchmark.threads} - comma-separated thread counts (default: 1,4,16)</li>
+ *   <li>{@code benchmark.resultDir} - directory for {@code jmh-threads-N.json} (default: target/jmh)</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("benchmark.include", BenchmarkRunner.class.getPackageName() + ".*");
+        int[] threadCounts = Arrays.stream(System.getProperty("benchmark.threads", "1,4,16").split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Path resultDir = Path.of(System.getProperty("benchmark.resultDir", "target/jmh"));
+        Files.createDirectories(resultDir);
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir.resolve("jmh-threads-" + threads + ".json").toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.login.benchmark;
+
+import com.example.login.config.JwtConfig;
+import com.example.login.entity.Role;
+import com.example.login.entity.User;
+import com.example.login.repository.RoleRepository;
+import com.example.login.repository.UserRepository;
+import com.example.login.security.InMemoryRevocationBackend;
+import com.example.login.security.JwtAuthenticationFilter;
+import com.example.login.security.JwtKeyRing;
+import com.example.login.security.RoleAuthorityTable;
+import com.example.login.security.TokenRevocationStore;
+import com.example.login.security.VerifiedTokenCache;
+import com.example.login.service.JwtService;
+import com.example.login.service.TokenEpochService;
+import com.example.login.service.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter} for a protected endpoint
+ * with a valid bearer token, passing through to a no-op filter chain.
+ * Each invocation builds a fresh mock request and response, which is included
+ * in the reported allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, jwtConfig.secretKey());
+        TokenRevocationService revocationService = new TokenRevocationService(new InMemoryRevocationBackend(),
+                new TokenRevocationStore(), jwtConfig, new SimpleMeterRegistry());
+        JwtService jwtService = new JwtService(jwtConfig, keyRing, jwtConfig.jwtParser(keyRing),
+                new VerifiedTokenCache(jwtConfig), revocationService);
+        TokenEpochService tokenEpochService = new TokenEpochService(Mockito.mock(UserRepository.class), new JwtConfig());
+        RoleRepository roleRepository = Mockito.mock(RoleRepository.class);
+        Mockito.when(roleRepository.findAll()).thenReturn(List.of(new Role("ADMIN"), new Role("USER")));
+        RoleAuthorityTable roleAuthorityTable = new RoleAuthorityTable(roleRepository);
+        roleAuthorityTable.refresh();
+        filter = new JwtAuthenticationFilter(jwtService, tokenEpochService, roleAuthorityTable);
+        User user = User.builder().id(1L).username("benchmark").email("benchmark@example.com").tokenEpoch(0L).build();
+        authorization = "Bearer " + jwtService.generateToken(user, List.of("ADMIN", "USER"), List.of(1L, 2L));
+    }
+
+    @Benchmark
+    public int doFilterInternal() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.login.benchmark;
+
+import com.example.login.config.JwtConfig;
+import com.example.login.entity.User;
+import com.example.login.security.InMemoryRevocationBackend;
+import com.example.login.security.JwtKeyRing;
+import com.example.login.security.TokenRevocationStore;
+import com.example.login.security.VerifiedToken;
+import com.example.login.security.VerifiedTokenCache;
+import com.example.login.service.JwtService;
+import com.example.login.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token hot paths of {@link JwtService}: issuing a token, parsing it without
+ * the verified-token cache (what {@code extractAllClaims} does on a miss), and
+ * the verification and validation used on every authenticated request, with
+ * the cache on (repeat callers) and off ({@code jwt.cache.enabled=false}, a full
+ * signature check per call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    private JwtService jwtService;
+    private JwtParser jwtParser;
+    private User user;
+    private List<String> roles;
+    private List<Long> clientIds;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.getCache().setEnabled(cacheEnabled);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, jwtConfig.secretKey());
+        jwtParser = jwtConfig.jwtParser(keyRing);
+        TokenRevocationService revocationService = new TokenRevocationService(new InMemoryRevocationBackend(),
+                new TokenRevocationStore(), jwtConfig, new SimpleMeterRegistry());
+        jwtService = new JwtService(jwtConfig, keyRing, jwtParser, new VerifiedTokenCache(jwtConfig),
+                revocationService);
+        user = User.builder().id(1L).username("benchmark").email("benchmark@example.com").tokenEpoch(0L).build();
+        roles = List.of("ADMIN", "USER");
+        clientIds = List.of(1L, 2L);
+        token = jwtService.generateToken(user, roles, clientIds);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user, roles, clientIds);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public VerifiedToken verifyToken() {
+        return jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, "benchmark");
+    }
+}
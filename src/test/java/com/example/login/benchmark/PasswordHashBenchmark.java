@@ -0,0 +1,55 @@
+package com.example.login.benchmark;
+
+import com.example.login.entity.User.PasswordType;
+import com.example.login.util.PasswordHashUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of hashing and verifying a password with each {@link PasswordType},
+ * using the default cost parameters of {@link PasswordHashUtil}.
+ * The key-stretching types take milliseconds per call, so expect few samples for them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "Benchmark@123";
+
+    @Param({"MD5", "SHA256", "SHA512", "BCRYPT", "ARGON2ID", "PBKDF2"})
+    private PasswordType type;
+
+    private String salt;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        salt = PasswordHashUtil.generateSalt(type);
+        hash = PasswordHashUtil.generateHash(type, salt, PASSWORD);
+    }
+
+    @Benchmark
+    public String generateHash() {
+        return PasswordHashUtil.generateHash(type, salt, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return PasswordHashUtil.isValid(type, salt, PASSWORD, hash);
+    }
+}
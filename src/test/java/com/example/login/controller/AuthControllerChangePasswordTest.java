@@ -3,7 +3,11 @@ package com.example.login.controller;
 import com.example.login.dto.ChangePasswordRequest;
 import com.example.login.entity.User;
 import com.example.login.repository.UserRepository;
+import com.example.login.service.LoginAuditService;
 import com.example.login.service.PasswordService;
+import com.example.login.service.TokenEpochService;
+import com.example.login.service.UserAuthzCache;
+import com.example.login.service.UserIdentifierFilter;
 import com.example.login.service.UserLookupService;
 import com.example.login.util.PasswordHashUtil.PasswordHashResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -41,6 +45,18 @@ class AuthControllerChangePasswordTest {
     @Mock
     private UserLookupService userLookupService;
 
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private LoginAuditService loginAuditService;
+
+    @Mock
+    private UserIdentifierFilter userIdentifierFilter;
+
+    @Mock
+    private UserAuthzCache userAuthzCache;
+
     @Mock
     private Authentication authentication;
 
@@ -111,6 +127,8 @@ class AuthControllerChangePasswordTest {
         verify(passwordService).isPasswordSecure("NewPassword123!");
         verify(passwordService).generateHash(eq(User.PasswordType.BCRYPT), eq("NewPassword123!"));
         verify(userRepository).save(any(User.class));
+        verify(userAuthzCache).invalidate(1L);
+        verify(tokenEpochService).revokeAll(1L);
     }
 
     @Test
@@ -4,12 +4,20 @@ import com.example.login.dto.CreateUserRequest;
 import com.example.login.dto.LoginRequest;
 import com.example.login.dto.LoginResponse;
 import com.example.login.entity.User;
+import com.example.login.exception.ServiceBusyException;
 import com.example.login.repository.UserRepository;
+import com.example.login.security.VerifiedToken;
 import com.example.login.service.JwtService;
+import com.example.login.service.LoginAuditService;
 import com.example.login.service.PasswordService;
+import com.example.login.service.TokenEpochService;
+import com.example.login.service.UserAuthzCache;
+import com.example.login.service.UserIdentifierFilter;
 import com.example.login.service.UserLookupService;
+import com.example.login.service.UserLookupService.LoginClaims;
 import com.example.login.util.PasswordHashUtil.PasswordHashResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -49,6 +58,18 @@ class AuthControllerTest {
     @Mock
     private UserLookupService userLookupService;
 
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private LoginAuditService loginAuditService;
+
+    @Mock
+    private UserIdentifierFilter userIdentifierFilter;
+
+    @Mock
+    private UserAuthzCache userAuthzCache;
+
     @Mock
     private Authentication authentication;
 
@@ -102,10 +123,9 @@ class AuthControllerTest {
         List<Long> clientIds = Arrays.asList(1L, 2L);
         String jwtToken = "test.jwt.token";
 
-        when(userLookupService.authenticateByUsername("testuser", "password123"))
+        when(userLookupService.authenticate("testuser", "password123"))
             .thenReturn(Optional.of(testUser));
-        when(userLookupService.getUserRoles(testUser)).thenReturn(roles);
-        when(userLookupService.getUserClientIds(testUser)).thenReturn(clientIds);
+        when(userLookupService.getLoginClaims(testUser)).thenReturn(new LoginClaims(roles, clientIds));
         when(jwtService.generateToken(testUser, roles, clientIds)).thenReturn(jwtToken);
         doNothing().when(userLookupService).updateLastLogin(testUser);
 
@@ -119,11 +139,11 @@ class AuthControllerTest {
         assertEquals(jwtToken, response.getBody().getToken());
         assertEquals(testUser.getUsername(), response.getBody().getUser().getUsername());
 
-        verify(userLookupService).authenticateByUsername("testuser", "password123");
-        verify(userLookupService).getUserRoles(testUser);
-        verify(userLookupService).getUserClientIds(testUser);
+        verify(userLookupService).authenticate("testuser", "password123");
+        verify(userLookupService).getLoginClaims(testUser);
         verify(jwtService).generateToken(testUser, roles, clientIds);
         verify(userLookupService).updateLastLogin(testUser);
+        verify(loginAuditService).recordLogin(testUser.getId());
     }
 
     @Test
@@ -137,12 +157,9 @@ class AuthControllerTest {
         List<Long> clientIds = Arrays.asList(1L);
         String jwtToken = "test.jwt.token";
 
-        when(userLookupService.authenticateByUsername("test@example.com", "password123"))
-            .thenReturn(Optional.empty());
-        when(userLookupService.authenticateByEmail("test@example.com", "password123"))
+        when(userLookupService.authenticate("test@example.com", "password123"))
             .thenReturn(Optional.of(testUser));
-        when(userLookupService.getUserRoles(testUser)).thenReturn(roles);
-        when(userLookupService.getUserClientIds(testUser)).thenReturn(clientIds);
+        when(userLookupService.getLoginClaims(testUser)).thenReturn(new LoginClaims(roles, clientIds));
         when(jwtService.generateToken(testUser, roles, clientIds)).thenReturn(jwtToken);
         doNothing().when(userLookupService).updateLastLogin(testUser);
 
@@ -156,10 +173,8 @@ class AuthControllerTest {
         assertEquals(jwtToken, response.getBody().getToken());
         assertEquals(testUser.getUsername(), response.getBody().getUser().getUsername());
 
-        verify(userLookupService).authenticateByUsername("test@example.com", "password123");
-        verify(userLookupService).authenticateByEmail("test@example.com", "password123");
-        verify(userLookupService).getUserRoles(testUser);
-        verify(userLookupService).getUserClientIds(testUser);
+        verify(userLookupService).authenticate("test@example.com", "password123");
+        verify(userLookupService).getLoginClaims(testUser);
         verify(jwtService).generateToken(testUser, roles, clientIds);
         verify(userLookupService).updateLastLogin(testUser);
     }
@@ -172,9 +187,7 @@ class AuthControllerTest {
                 .password("wrongpassword")
                 .build();
 
-        when(userLookupService.authenticateByUsername("testuser", "wrongpassword"))
-            .thenReturn(Optional.empty());
-        when(userLookupService.authenticateByEmail("testuser", "wrongpassword"))
+        when(userLookupService.authenticate("testuser", "wrongpassword"))
             .thenReturn(Optional.empty());
 
         // Act
@@ -186,10 +199,8 @@ class AuthControllerTest {
         assertFalse(response.getBody().isSuccess());
         assertEquals("Invalid username/email or password", response.getBody().getMessage());
 
-        verify(userLookupService).authenticateByUsername("testuser", "wrongpassword");
-        verify(userLookupService).authenticateByEmail("testuser", "wrongpassword");
-        verify(userLookupService, never()).getUserRoles(any());
-        verify(userLookupService, never()).getUserClientIds(any());
+        verify(userLookupService).authenticate("testuser", "wrongpassword");
+        verify(userLookupService, never()).getLoginClaims(any());
         verify(jwtService, never()).generateToken(any(), any(), any());
         verify(userLookupService, never()).updateLastLogin(any());
     }
@@ -202,7 +213,7 @@ class AuthControllerTest {
                 .password("password123")
                 .build();
 
-        when(userLookupService.authenticateByUsername("testuser", "password123"))
+        when(userLookupService.authenticate("testuser", "password123"))
             .thenThrow(new RuntimeException("Database error"));
 
         // Act
@@ -214,13 +225,36 @@ class AuthControllerTest {
         assertFalse(response.getBody().isSuccess());
         assertEquals("An error occurred during authentication", response.getBody().getMessage());
 
-        verify(userLookupService).authenticateByUsername("testuser", "password123");
-        verify(userLookupService, never()).getUserRoles(any());
-        verify(userLookupService, never()).getUserClientIds(any());
+        verify(userLookupService).authenticate("testuser", "password123");
+        verify(userLookupService, never()).getLoginClaims(any());
         verify(jwtService, never()).generateToken(any(), any(), any());
         verify(userLookupService, never()).updateLastLogin(any());
     }
 
+    @Test
+    void loginPost_PasswordPoolSaturated_ReturnsServiceUnavailable() {
+        // Arrange
+        LoginRequest loginRequest = LoginRequest.builder()
+                .usernameOrEmail("testuser")
+                .password("password123")
+                .build();
+
+        when(userLookupService.authenticate("testuser", "password123"))
+            .thenThrow(new ServiceBusyException("Password verification queue is full", 2));
+
+        // Act
+        ResponseEntity<LoginResponse> response = authController.loginPost(loginRequest);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertFalse(response.getBody().isSuccess());
+
+        verify(jwtService, never()).generateToken(any(), any(), any());
+        verify(loginAuditService, never()).recordLogin(any());
+    }
+
     @Test
     void logout_Success() {
         // Arrange
@@ -240,6 +274,36 @@ class AuthControllerTest {
         verify(mockRequest).getHeader("Authorization");
     }
 
+    @Test
+    void logout_ShouldAuditLogoutForTokenUser() {
+        // Arrange
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+        when(mockRequest.getHeader("Authorization")).thenReturn("Bearer test.jwt.token");
+        VerifiedToken verifiedToken = VerifiedToken.of("test.jwt.token",
+            Jwts.claims().subject("testuser").add("uid", 1L).build());
+        when(jwtService.blacklistToken("test.jwt.token")).thenReturn(Optional.of(verifiedToken));
+
+        // Act
+        authController.logout(mockRequest);
+
+        // Assert
+        verify(loginAuditService).recordLogout(1L);
+    }
+
+    @Test
+    void logout_WithUnverifiableToken_ShouldNotAudit() {
+        // Arrange
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+        when(mockRequest.getHeader("Authorization")).thenReturn("Bearer invalid.token");
+        when(jwtService.blacklistToken("invalid.token")).thenReturn(Optional.empty());
+
+        // Act
+        authController.logout(mockRequest);
+
+        // Assert
+        verify(loginAuditService, never()).recordLogout(any());
+    }
+
     @Test
     void logout_NoToken() {
         // Arrange
@@ -472,6 +536,7 @@ class AuthControllerTest {
         verify(passwordService).isPasswordSecure("Password123!");
         verify(passwordService).generateHash(eq(User.PasswordType.BCRYPT), eq("Password123!"));
         verify(userRepository).save(any(User.class));
+        verify(userIdentifierFilter).add("newuser", "newuser@example.com");
     }
 
     @Test
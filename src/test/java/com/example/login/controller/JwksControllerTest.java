@@ -0,0 +1,34 @@
+package com.example.login.controller;
+
+import com.example.login.config.JwtConfig;
+import com.example.login.security.JwtKeyRing;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwksControllerTest {
+
+    @Test
+    void jwks_ShouldServePublicKeysWithCacheHeaders() {
+        // Given
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.getSigning().setAlgorithm("ES256");
+        jwtConfig.getSigning().setJwksMaxAge(600);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, Jwts.SIG.HS512.key().build());
+        JwksController controller = new JwksController(keyRing, jwtConfig);
+
+        // When
+        ResponseEntity<Map<String, Object>> response = controller.jwks();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=600, public");
+        assertThat((List<?>) response.getBody().get("keys")).hasSize(1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.login.datasource;
+
+import com.example.login.controller.AuthController;
+import com.example.login.repository.UserRepository;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConnectionHoldInterceptorsTest {
+
+    @AfterEach
+    void tearDown() {
+        ConnectionHoldContext.clearEndpoint();
+        ConnectionHoldContext.clearRepository();
+    }
+
+    @Test
+    void handlerInterceptor_ShouldTagRequestWithControllerMethod() throws Exception {
+        // Given
+        ConnectionHoldHandlerInterceptor interceptor = new ConnectionHoldHandlerInterceptor();
+        HandlerMethod handler = new HandlerMethod(mock(AuthController.class),
+                AuthController.class.getMethod("logoutGet"));
+
+        // When
+        interceptor.preHandle(null, null, handler);
+        String during = ConnectionHoldContext.endpoint();
+        interceptor.afterCompletion(null, null, handler, null);
+
+        // Then
+        assertThat(during).isEqualTo("AuthController.logoutGet");
+        assertThat(ConnectionHoldContext.endpoint()).isEqualTo(ConnectionHoldContext.NONE);
+    }
+
+    @Test
+    void repositoryInterceptor_ShouldKeepOutermostRepositoryCall() throws Throwable {
+        // Given
+        ConnectionHoldRepositoryInterceptor interceptor = new ConnectionHoldRepositoryInterceptor(UserRepository.class);
+        MethodInvocation outer = mock(MethodInvocation.class);
+        MethodInvocation inner = mock(MethodInvocation.class);
+        when(outer.getMethod()).thenReturn(UserRepository.class.getMethod("findAll"));
+        when(inner.getMethod()).thenReturn(UserRepository.class.getMethod("count"));
+        when(inner.proceed()).thenAnswer(invocation -> ConnectionHoldContext.repository());
+        when(outer.proceed()).thenAnswer(invocation -> interceptor.invoke(inner));
+
+        // When
+        Object seen = interceptor.invoke(outer);
+
+        // Then
+        assertThat(seen).isEqualTo("UserRepository.findAll");
+        assertThat(ConnectionHoldContext.repository()).isEqualTo(ConnectionHoldContext.NONE);
+    }
+}
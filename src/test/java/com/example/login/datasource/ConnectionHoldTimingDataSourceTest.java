@@ -0,0 +1,85 @@
+package com.example.login.datasource;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionHoldTimingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionHoldTimingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ConnectionHoldTimingDataSource(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConnectionHoldContext.clearEndpoint();
+        ConnectionHoldContext.clearRepository();
+    }
+
+    @Test
+    void getConnection_ShouldRecordHoldTimeForEndpointAndRepository() throws Exception {
+        // Given
+        ConnectionHoldContext.setEndpoint("AuthController.login");
+        ConnectionHoldContext.enterRepository("UserRepository.findByUsername");
+
+        // When
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+
+        // Then
+        Timer timer = meterRegistry.get("db.connection.hold")
+                .tag("endpoint", "AuthController.login")
+                .tag("repository", "UserRepository.findByUsername")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_OutsideRequest_ShouldTagNone() throws Exception {
+        // When
+        dataSource.getConnection().close();
+
+        // Then
+        assertThat(meterRegistry.get("db.connection.hold").tag("endpoint", "none").tag("repository", "none")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void close_Twice_ShouldRecordOnce() throws Exception {
+        // Given
+        Connection connection = dataSource.getConnection();
+
+        // When
+        connection.close();
+        connection.close();
+
+        // Then
+        assertThat(meterRegistry.get("db.connection.hold").timer().count()).isEqualTo(1);
+        assertThat(connection.isClosed()).isTrue();
+    }
+
+    @Test
+    void timer_ShouldBeSharedPerEndpointAndRepository() {
+        // When / Then
+        assertThat(dataSource.timer("AuthController.login", "none"))
+                .isSameAs(dataSource.timer("AuthController.login", "none"))
+                .isNotSameAs(dataSource.timer("AuthController.logout", "none"));
+    }
+}
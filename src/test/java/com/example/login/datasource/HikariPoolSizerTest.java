@@ -0,0 +1,45 @@
+package com.example.login.datasource;
+
+import com.example.login.config.LoginConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HikariPoolSizerTest {
+
+    private final LoginConfig.ConnectionPoolProperties properties = new LoginConfig.ConnectionPoolProperties();
+
+    @Test
+    void poolSize_ShouldFollowCoreCount() {
+        // When / Then
+        assertThat(HikariPoolSizer.poolSize(properties, 4)).isEqualTo(9);
+        assertThat(HikariPoolSizer.poolSize(properties, 16)).isEqualTo(33);
+    }
+
+    @Test
+    void postProcess_WithoutExplicitSize_ShouldDeriveIt() {
+        // Given
+        HikariDataSource dataSource = new HikariDataSource();
+
+        // When
+        new HikariPoolSizer(properties).postProcessBeforeInitialization(dataSource, "dataSource");
+
+        // Then
+        assertThat(dataSource.getMaximumPoolSize())
+                .isEqualTo(HikariPoolSizer.poolSize(properties, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Test
+    void postProcess_WithExplicitSize_ShouldKeepIt() {
+        // Given
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(7);
+
+        // When
+        new HikariPoolSizer(properties).postProcessBeforeInitialization(dataSource, "dataSource");
+
+        // Then
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(7);
+    }
+}
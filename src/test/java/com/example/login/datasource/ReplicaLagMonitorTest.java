@@ -0,0 +1,140 @@
+package com.example.login.datasource;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.datasource.ReplicaRoutingDataSource.Replica;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+
+    private JdbcTemplate replicaJdbcTemplate;
+    private Replica replica;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        DataSource replicaDataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        replicaJdbcTemplate.execute("CREATE TABLE replica_status (seconds_behind_source BIGINT)");
+        LoginConfig loginConfig = new LoginConfig();
+        loginConfig.getReadReplicas().setMaxLag(5);
+        // H2 has no SHOW REPLICA STATUS; the same column is read from a table instead
+        loginConfig.getReadReplicas().setLagQuery("SELECT seconds_behind_source FROM replica_status");
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class),
+                Map.of("replica-a", replicaDataSource), new SimpleMeterRegistry());
+        replica = routingDataSource.getReplicas().get(0);
+        monitor = new ReplicaLagMonitor(routingDataSource, loginConfig);
+    }
+
+    @Test
+    void check_WithinMaxLag_ShouldMarkReplicaHealthy() {
+        // Given
+        replicaJdbcTemplate.update("INSERT INTO replica_status VALUES (2)");
+
+        // When
+        monitor.check();
+
+        // Then
+        assertThat(replica.isHealthy()).isTrue();
+        assertThat(replica.getLagSeconds()).isEqualTo(2.0);
+    }
+
+    @Test
+    void check_BeyondMaxLag_ShouldTakeReplicaOutOfRotation() {
+        // Given
+        replica.update(0L, true);
+        replicaJdbcTemplate.update("INSERT INTO replica_status VALUES (30)");
+
+        // When
+        monitor.check();
+
+        // Then
+        assertThat(replica.isHealthy()).isFalse();
+        assertThat(replica.getLagSeconds()).isEqualTo(30.0);
+    }
+
+    @Test
+    void check_WhenReplicationStopped_ShouldTakeReplicaOutOfRotation() {
+        // Given
+        replica.update(0L, true);
+        replicaJdbcTemplate.update("INSERT INTO replica_status VALUES (NULL)");
+
+        // When
+        monitor.check();
+
+        // Then
+        assertThat(replica.isHealthy()).isFalse();
+        assertThat(replica.getLagSeconds()).isNaN();
+    }
+
+    @Test
+    void check_WithoutReplicationStatus_ShouldTakeReplicaOutOfRotation() {
+        // Given
+        replica.update(0L, true);
+
+        // When
+        monitor.check();
+
+        // Then
+        assertThat(replica.isHealthy()).isFalse();
+    }
+
+    @Test
+    void check_WhenReplicaUnreachable_ShouldTakeReplicaOutOfRotation() {
+        // Given
+        replica.update(0L, true);
+        replicaJdbcTemplate.execute("DROP TABLE replica_status");
+
+        // When
+        monitor.check();
+
+        // Then
+        assertThat(replica.isHealthy()).isFalse();
+    }
+
+    @Test
+    void check_WhenReplicaHangs_ShouldGiveUpAfterProbeTimeout() throws Exception {
+        // Given
+        DataSource hanging = mock(DataSource.class);
+        when(hanging.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return null;
+        });
+        LoginConfig loginConfig = new LoginConfig();
+        loginConfig.getReadReplicas().setProbeTimeout(100);
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class),
+                Map.of("replica-b", hanging), new SimpleMeterRegistry());
+        Replica hangingReplica = routingDataSource.getReplicas().get(0);
+        hangingReplica.update(0L, true);
+        ReplicaLagMonitor hangingMonitor = new ReplicaLagMonitor(routingDataSource, loginConfig);
+
+        try {
+            // When
+            long start = System.nanoTime();
+            hangingMonitor.check();
+            hangingMonitor.check();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Then
+            assertThat(elapsedMillis).isLessThan(2000);
+            assertThat(hangingReplica.isHealthy()).isFalse();
+            verify(hanging, times(1)).getConnection();
+        } finally {
+            hangingMonitor.shutdown();
+        }
+    }
+}
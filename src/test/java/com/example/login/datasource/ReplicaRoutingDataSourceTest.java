@@ -0,0 +1,103 @@
+package com.example.login.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-a", mock(DataSource.class));
+        replicas.put("replica-b", mock(DataSource.class));
+        routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class), replicas, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void determineCurrentLookupKey_OutsideReadOnlyTransaction_ShouldUsePrimary() {
+        // Given
+        markAllHealthy();
+
+        // When / Then
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void determineCurrentLookupKey_InReadOnlyTransaction_ShouldRotateOverReplicas() {
+        // Given
+        markAllHealthy();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Object first = routingDataSource.determineCurrentLookupKey();
+        Object second = routingDataSource.determineCurrentLookupKey();
+        Object third = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertThat(first).isEqualTo("replica-a");
+        assertThat(second).isEqualTo("replica-b");
+        assertThat(third).isEqualTo("replica-a");
+    }
+
+    @Test
+    void determineCurrentLookupKey_ShouldSkipLaggingReplica() {
+        // Given
+        markAllHealthy();
+        routingDataSource.getReplicas().get(0).update(120L, false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When / Then
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-b");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-b");
+    }
+
+    @Test
+    void determineCurrentLookupKey_WithoutHealthyReplica_ShouldFallBackToPrimary() {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Object key = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(meterRegistry.get("datasource.replica.fallbacks").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void update_ShouldPublishLagAndHealthPerReplica() {
+        // When
+        routingDataSource.getReplicas().get(1).update(3L, true);
+
+        // Then
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("replica", "replica-b").gauge().value())
+                .isEqualTo(3.0);
+        assertThat(meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-b").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-a").gauge().value())
+                .isZero();
+    }
+
+    private void markAllHealthy() {
+        routingDataSource.getReplicas().forEach(replica -> replica.update(0L, true));
+    }
+}
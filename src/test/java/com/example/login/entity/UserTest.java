@@ -214,7 +214,7 @@ class UserTest {
 
         // When
         User user = new User(id, idClient, null, username, passwordHash, passwordSalt, 
-                passwordType, name, email, status, dateLastLogin, dateCreated, dateUpdated, null, null);
+                passwordType, name, email, status, 3L, dateLastLogin, dateCreated, dateUpdated, null, null);
 
         // Then
         assertEquals(id, user.getId());
@@ -226,6 +226,7 @@ class UserTest {
         assertEquals(name, user.getName());
         assertEquals(email, user.getEmail());
         assertEquals(status, user.getStatus());
+        assertEquals(3L, user.getTokenEpoch());
         assertEquals(dateLastLogin, user.getDateLastLogin());
         assertEquals(dateCreated, user.getDateCreated());
         assertEquals(dateUpdated, user.getDateUpdated());
@@ -479,11 +480,13 @@ class UserTest {
     void testPasswordTypeValuesArray() {
         // Test password type values array
         User.PasswordType[] values = User.PasswordType.values();
-        assertEquals(4, values.length);
+        assertEquals(6, values.length);
         assertTrue(java.util.Arrays.asList(values).contains(User.PasswordType.BCRYPT));
         assertTrue(java.util.Arrays.asList(values).contains(User.PasswordType.SHA256));
         assertTrue(java.util.Arrays.asList(values).contains(User.PasswordType.MD5));
         assertTrue(java.util.Arrays.asList(values).contains(User.PasswordType.SHA512));
+        assertTrue(java.util.Arrays.asList(values).contains(User.PasswordType.ARGON2ID));
+        assertTrue(java.util.Arrays.asList(values).contains(User.PasswordType.PBKDF2));
     }
 
     @Test
@@ -0,0 +1,148 @@
+package com.example.login.repository;
+
+import com.example.login.entity.Client;
+import com.example.login.entity.ClientRole;
+import com.example.login.entity.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that roles, clients and client roles are served from the second-level
+ * and query caches. Runs without a test transaction so that every repository
+ * call commits and gets a fresh persistence context.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:reference-cache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=false"
+})
+class ReferenceEntityCacheTest {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ClientRoleRepository clientRoleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientRoleRepository.deleteAll();
+        roleRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    void findById_ShouldServeRoleFromSecondLevelCache() {
+        // Given
+        Role role = roleRepository.save(new Role("ROLE_CACHED"));
+        roleRepository.findById(role.getId());
+        statistics.clear();
+
+        // When
+        roleRepository.findById(role.getId());
+
+        // Then
+        assertThat(statistics.getDomainDataRegionStatistics("roles").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void findByInternalFalseOrderByDescriptionAsc_ShouldServeRepeatedQueryFromQueryCache() {
+        // Given
+        roleRepository.save(new Role("ROLE_EXTERNAL"));
+        roleRepository.findByInternalFalseOrderByDescriptionAsc();
+        statistics.clear();
+
+        // When
+        roleRepository.findByInternalFalseOrderByDescriptionAsc();
+
+        // Then
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void save_ShouldInvalidateCachedQueriesOnTheSameTable() {
+        // Given
+        roleRepository.save(new Role("ROLE_FIRST"));
+        roleRepository.findByInternalFalseOrderByDescriptionAsc();
+
+        // When
+        roleRepository.save(new Role("ROLE_SECOND"));
+
+        // Then
+        assertThat(roleRepository.findByInternalFalseOrderByDescriptionAsc())
+                .extracting(Role::getDescription)
+                .containsExactly("ROLE_FIRST", "ROLE_SECOND");
+    }
+
+    @Test
+    void findAll_ShouldServeRepeatedPageFromQueryCache() {
+        // Given
+        clientRepository.save(new Client("Acme Corporation"));
+        clientRepository.findAll(PageRequest.of(0, 20));
+        statistics.clear();
+
+        // When
+        clientRepository.findAll(PageRequest.of(0, 20));
+
+        // Then
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void clientRoles_ShouldBeServedFromCollectionCache() {
+        // Given
+        Role role = roleRepository.save(new Role("ROLE_ASSIGNED"));
+        Client client = clientRepository.save(new Client("Assigned Corporation"));
+        clientRoleRepository.save(new ClientRole(client.getId(), role.getId()));
+        Runnable readClientRoles = () -> transactionTemplate.executeWithoutResult(status ->
+                roleRepository.findById(role.getId()).orElseThrow().getClientRoles().size());
+        readClientRoles.run();
+        statistics.clear();
+
+        // When
+        readClientRoles.run();
+
+        // Then
+        assertThat(statistics.getDomainDataRegionStatistics("role-client-roles").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
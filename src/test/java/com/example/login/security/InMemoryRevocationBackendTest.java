@@ -0,0 +1,71 @@
+package com.example.login.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRevocationBackendTest {
+
+    private InMemoryRevocationBackend backend;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        backend = new InMemoryRevocationBackend();
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void revoke_ShouldBeVisibleUntilExpiration() {
+        // Given
+        TokenKey key = TokenKey.random();
+
+        // When
+        backend.revoke(key, now + 60_000);
+
+        // Then
+        assertThat(backend.isRevoked(key, now)).isTrue();
+        assertThat(backend.isRevoked(key, now + 60_000)).isFalse();
+        assertThat(backend.isRevoked(TokenKey.random(), now)).isFalse();
+    }
+
+    @Test
+    void fetchSince_ShouldReturnNewRecordsInOrder() {
+        // Given
+        TokenKey first = TokenKey.random();
+        TokenKey second = TokenKey.random();
+        TokenKey third = TokenKey.random();
+        backend.revoke(first, now + 60_000);
+        backend.revoke(second, now + 60_000);
+        backend.revoke(second, now + 60_000);
+        backend.revoke(third, now + 60_000);
+
+        // When
+        List<RevocationBackend.RevocationRecord> page = backend.fetchSince(0, now, 2);
+        List<RevocationBackend.RevocationRecord> rest = backend.fetchSince(page.get(1).sequence(), now, 2);
+
+        // Then
+        assertThat(page).extracting(RevocationBackend.RevocationRecord::key).containsExactly(first, second);
+        assertThat(rest).extracting(RevocationBackend.RevocationRecord::key).containsExactly(third);
+    }
+
+    @Test
+    void purgeExpired_ShouldRemoveOnlyExpiredRecords() {
+        // Given
+        TokenKey expired = TokenKey.random();
+        TokenKey active = TokenKey.random();
+        backend.revoke(expired, now - 1);
+        backend.revoke(active, now + 60_000);
+
+        // When
+        int purged = backend.purgeExpired(now);
+
+        // Then
+        assertThat(purged).isEqualTo(1);
+        assertThat(backend.fetchSince(0, 0, 10)).extracting(RevocationBackend.RevocationRecord::key)
+                .containsExactly(active);
+    }
+}
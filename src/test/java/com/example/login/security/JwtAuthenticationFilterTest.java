@@ -1,6 +1,9 @@
 package com.example.login.security;
 
+import com.example.login.repository.RoleRepository;
 import com.example.login.service.JwtService;
+import com.example.login.service.TokenEpochService;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -12,9 +15,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Date;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +32,12 @@ class JwtAuthenticationFilterTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private RoleRepository roleRepository;
+
     @Mock
     private HttpServletRequest request;
 
@@ -37,44 +51,60 @@ class JwtAuthenticationFilterTest {
 
     @BeforeEach
     void setUp() {
-        filter = new JwtAuthenticationFilter(jwtService);
+        filter = new JwtAuthenticationFilter(jwtService, tokenEpochService, new RoleAuthorityTable(roleRepository));
         SecurityContextHolder.clearContext();
     }
 
+    private VerifiedToken verifiedToken(String token, String username, List<String> roles) {
+        return VerifiedToken.of(token, Jwts.claims()
+                .subject(username)
+                .add("uid", 1L)
+                .add("epoch", 2L)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .add("roles", roles)
+                .build());
+    }
+
     @Test
     void doFilterInternal_WithValidJwtToken_ShouldSetAuthentication() throws Exception {
         // Given
         String token = "valid.jwt.token";
+        VerifiedToken verifiedToken = verifiedToken(token, "testuser", List.of("ROLE_ADMIN"));
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractUsername(token)).thenReturn("testuser");
-        when(jwtService.validateToken(token, "testuser")).thenReturn(true);
-        when(jwtService.extractRoles(token)).thenReturn(List.of("ROLE_ADMIN"));
+        when(jwtService.verifyToken(token)).thenReturn(verifiedToken);
+        when(jwtService.validateToken(verifiedToken, "testuser")).thenReturn(true);
+        when(tokenEpochService.isCurrent(1L, 2L)).thenReturn(true);
 
         // When
         filter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtService).extractUsername(token);
-        verify(jwtService).validateToken(token, "testuser");
-        verify(jwtService).extractRoles(token);
+        verify(jwtService, times(1)).verifyToken(token);
+        verify(jwtService).validateToken(verifiedToken, "testuser");
+        verify(jwtService, never()).extractUsername(anyString());
+        verify(jwtService, never()).extractRoles(anyString());
         verify(filterChain).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting("authority")
+                .containsExactly("ROLE_ADMIN");
     }
 
     @Test
     void doFilterInternal_WithInvalidJwtToken_ShouldNotSetAuthentication() throws Exception {
         // Given
         String token = "invalid.jwt.token";
+        VerifiedToken verifiedToken = verifiedToken(token, "testuser", List.of("ROLE_ADMIN"));
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractUsername(token)).thenReturn("testuser");
-        when(jwtService.validateToken(token, "testuser")).thenReturn(false);
+        when(jwtService.verifyToken(token)).thenReturn(verifiedToken);
+        when(jwtService.validateToken(verifiedToken, "testuser")).thenReturn(false);
 
         // When
         filter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtService).extractUsername(token);
-        verify(jwtService).validateToken(token, "testuser");
-        verify(jwtService, never()).extractRoles(anyString());
+        verify(jwtService).verifyToken(token);
+        verify(jwtService).validateToken(verifiedToken, "testuser");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         verify(filterChain).doFilter(request, response);
     }
 
@@ -87,7 +117,7 @@ class JwtAuthenticationFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtService, never()).extractUsername(anyString());
+        verify(jwtService, never()).verifyToken(anyString());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -100,7 +130,7 @@ class JwtAuthenticationFilterTest {
         filter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtService, never()).extractUsername(anyString());
+        verify(jwtService, never()).verifyToken(anyString());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -108,17 +138,18 @@ class JwtAuthenticationFilterTest {
     void doFilterInternal_WithBlacklistedToken_ShouldNotSetAuthentication() throws Exception {
         // Given
         String token = "blacklisted.jwt.token";
+        VerifiedToken verifiedToken = verifiedToken(token, "testuser", List.of("ROLE_ADMIN"));
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractUsername(token)).thenReturn("testuser");
-        when(jwtService.validateToken(token, "testuser")).thenReturn(false);
+        when(jwtService.verifyToken(token)).thenReturn(verifiedToken);
+        when(jwtService.validateToken(verifiedToken, "testuser")).thenReturn(false);
 
         // When
         filter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtService).extractUsername(token);
-        verify(jwtService).validateToken(token, "testuser");
-        verify(jwtService, never()).extractRoles(anyString());
+        verify(jwtService).verifyToken(token);
+        verify(jwtService).validateToken(verifiedToken, "testuser");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         verify(filterChain).doFilter(request, response);
     }
 
@@ -127,13 +158,57 @@ class JwtAuthenticationFilterTest {
         // Given
         String token = "invalid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractUsername(token)).thenThrow(new RuntimeException("Invalid token"));
+        when(jwtService.verifyToken(token)).thenThrow(new RuntimeException("Invalid token"));
+
+        // When
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(jwtService).verifyToken(token);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithTokenFromRevokedEpoch_ShouldRejectProtectedEndpoint() throws Exception {
+        // Given
+        String token = "stale.jwt.token";
+        VerifiedToken verifiedToken = verifiedToken(token, "testuser", List.of("ROLE_ADMIN"));
+        StringWriter body = new StringWriter();
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(request.getRequestURI()).thenReturn("/api/users");
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+        when(jwtService.verifyToken(token)).thenReturn(verifiedToken);
+        when(jwtService.validateToken(verifiedToken, "testuser")).thenReturn(true);
+        when(tokenEpochService.isCurrent(1L, 2L)).thenReturn(false);
+
+        // When
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        verify(filterChain, never()).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void doFilterInternal_WithLegacyTokenWithoutUserId_ShouldSkipEpochCheck() throws Exception {
+        // Given
+        String token = "legacy.jwt.token";
+        VerifiedToken verifiedToken = VerifiedToken.of(token, Jwts.claims()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .add("roles", List.of("ROLE_USER"))
+                .build());
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.verifyToken(token)).thenReturn(verifiedToken);
+        when(jwtService.validateToken(verifiedToken, "testuser")).thenReturn(true);
 
         // When
         filter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtService).extractUsername(token);
+        verify(tokenEpochService, never()).isCurrent(anyLong(), anyLong());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
         verify(filterChain).doFilter(request, response);
     }
 }
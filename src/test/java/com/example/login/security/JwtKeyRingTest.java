@@ -0,0 +1,292 @@
+package com.example.login.security;
+
+import com.example.login.config.JwtConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final String SECRET = "the-current-secret-that-is-long-enough-for-hs512-signing-0123456789";
+    private static final String NEW_SECRET = "a-new-secret-that-is-long-enough-for-hs512-signing-keys-0123456789";
+
+    private JwtConfig jwtConfig;
+    private SecretKey secretKey;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setExpiration(HOUR);
+        jwtConfig.getSigning().setRotationPeriod(HOUR);
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void hs512_ShouldSignWithDerivedKeyAndPublishNothing() {
+        // When
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, secretKey);
+
+        // Then
+        assertThat(keyRing.currentKey().keyId()).startsWith("hs512-");
+        assertThat(keyRing.currentKey().signingKey()).isNotEqualTo(secretKey);
+        assertThat((List<?>) keyRing.jwks().get("keys")).isEmpty();
+    }
+
+    @Test
+    void hs512_WithRotationDisabled_ShouldSignWithSharedSecret() {
+        // Given
+        jwtConfig.getSigning().setRotationPeriod(0);
+
+        // When
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, secretKey);
+        String token = sign(keyRing, "testuser");
+
+        // Then
+        assertThat(keyRing.currentKey().keyId()).matches("hs512-[0-9a-f]{8}");
+        assertThat(keyRing.currentKey().signingKey()).isSameAs(secretKey);
+        assertThat(Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().getSubject())
+                .isEqualTo("testuser");
+    }
+
+    @Test
+    void hs512_AfterSecretChange_ShouldVerifyTokensSignedWithPreviousSecret() {
+        // Given
+        JwtKeyRing oldRing = new JwtKeyRing(jwtConfig, secretKey);
+        String token = sign(oldRing, "testuser");
+        jwtConfig.getSigning().setPreviousSecrets(List.of(SECRET));
+        SecretKey newSecret = Keys.hmacShaKeyFor(NEW_SECRET.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        JwtKeyRing newRing = new JwtKeyRing(jwtConfig, newSecret);
+        newRing.rotate(System.currentTimeMillis() + HOUR);
+
+        // Then
+        assertThat(newRing.currentKey().keyId()).isNotEqualTo(oldRing.currentKey().keyId());
+        assertThat(jwtConfig.jwtParser(newRing).parseSignedClaims(token).getPayload().getSubject())
+                .isEqualTo("testuser");
+    }
+
+    @Test
+    void hs512_AfterSecretChangeWithRotationDisabled_ShouldVerifyTokensSignedWithPreviousSecret() {
+        // Given
+        jwtConfig.getSigning().setRotationPeriod(0);
+        String token = sign(new JwtKeyRing(jwtConfig, secretKey), "testuser");
+        jwtConfig.getSigning().setPreviousSecrets(List.of(SECRET));
+        SecretKey newSecret = Keys.hmacShaKeyFor(NEW_SECRET.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        JwtKeyRing newRing = new JwtKeyRing(jwtConfig, newSecret);
+
+        // Then
+        assertThat(newRing.currentKey().signingKey()).isSameAs(newSecret);
+        assertThat(jwtConfig.jwtParser(newRing).parseSignedClaims(token).getPayload().getSubject())
+                .isEqualTo("testuser");
+    }
+
+    @Test
+    void hs512_NodesSharingSecret_ShouldDeriveSameKeys() {
+        // Given
+        JwtKeyRing nodeA = new JwtKeyRing(jwtConfig, secretKey);
+        JwtKeyRing nodeB = new JwtKeyRing(jwtConfig, secretKey);
+        String token = sign(nodeA, "testuser");
+
+        // When
+        String subject = jwtConfig.jwtParser(nodeB).parseSignedClaims(token).getPayload().getSubject();
+
+        // Then
+        assertThat(subject).isEqualTo("testuser");
+    }
+
+    @Test
+    void rotate_ShouldKeepVerifyingTokensSignedWithRetiredKey() {
+        // Given
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, secretKey);
+        JwtParser parser = jwtConfig.jwtParser(keyRing);
+        String retiredKeyId = keyRing.currentKey().keyId();
+        String token = sign(keyRing, "testuser");
+
+        // When
+        keyRing.rotate(System.currentTimeMillis() + HOUR);
+
+        // Then
+        assertThat(keyRing.currentKey().keyId()).isNotEqualTo(retiredKeyId);
+        assertThat(keyRing.keyIds()).contains(retiredKeyId);
+        assertThat(parser.parseSignedClaims(token).getPayload().getSubject()).isEqualTo("testuser");
+    }
+
+    @Test
+    void rotate_ShouldDropKeysOnceTheirTokensHaveExpired() {
+        // Given
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, secretKey);
+        String retiredKeyId = keyRing.currentKey().keyId();
+
+        // When
+        keyRing.rotate(System.currentTimeMillis() + 4 * HOUR);
+
+        // Then
+        assertThat(keyRing.keyIds()).doesNotContain(retiredKeyId);
+        assertThat(keyRing.keyIds()).hasSizeLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void es256_ShouldPublishPublicKeyOnly() {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("ES256");
+
+        // When
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, secretKey);
+
+        // Then
+        Map<?, ?> jwk = (Map<?, ?>) ((List<?>) keyRing.jwks().get("keys")).get(0);
+        assertThat(keyRing.currentKey().keyId()).isNotBlank();
+        assertThat(jwk.get("kid")).isEqualTo(keyRing.currentKey().keyId());
+        assertThat(jwk.get("kty")).isEqualTo("EC");
+        assertThat(jwk.get("alg")).isEqualTo("ES256");
+        assertThat(jwk.containsKey("d")).isFalse();
+    }
+
+    @Test
+    void es256_RotateShouldPublishRetiredAndCurrentKeys() {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("ES256");
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, secretKey);
+        String retiredKeyId = keyRing.currentKey().keyId();
+
+        // When
+        keyRing.rotate(System.currentTimeMillis() + HOUR);
+
+        // Then
+        assertThat((List<?>) keyRing.jwks().get("keys")).hasSize(2);
+        assertThat(keyRing.keyIds()).contains(retiredKeyId, keyRing.currentKey().keyId());
+    }
+
+    @Test
+    void eddsa_TokenShouldVerifyWithPublishedKey() throws Exception {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("EdDSA");
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, secretKey);
+        String token = sign(keyRing, "testuser");
+        Map<?, ?> published = (Map<?, ?>) ((List<?>) keyRing.jwks().get("keys")).get(0);
+        Jwk<?> jwk = Jwks.parser().build().parse(new ObjectMapper().writeValueAsString(published));
+
+        // When
+        String subject = Jwts.parser().verifyWith((PublicKey) jwk.toKey()).build()
+                .parseSignedClaims(token).getPayload().getSubject();
+
+        // Then
+        assertThat(subject).isEqualTo("testuser");
+    }
+
+    @Test
+    void locate_WithoutKeyId_ShouldFallBackToSharedSecret() {
+        // Given
+        JwtParser parser = jwtConfig.jwtParser(new JwtKeyRing(jwtConfig, secretKey));
+        String legacyToken = Jwts.builder().subject("testuser").signWith(secretKey, Jwts.SIG.HS512).compact();
+
+        // When
+        String subject = parser.parseSignedClaims(legacyToken).getPayload().getSubject();
+
+        // Then
+        assertThat(subject).isEqualTo("testuser");
+    }
+
+    @Test
+    void locate_Es256WithoutKeyId_ShouldRejectSharedSecretToken() {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("ES256");
+        JwtParser parser = jwtConfig.jwtParser(new JwtKeyRing(jwtConfig, secretKey));
+        String legacyToken = Jwts.builder().subject("testuser").signWith(secretKey, Jwts.SIG.HS512).compact();
+
+        // When / Then
+        assertThatThrownBy(() -> parser.parseSignedClaims(legacyToken))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void locate_EdDsaWithoutKeyId_ShouldRejectSharedSecretToken() {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("EdDSA");
+        JwtParser parser = jwtConfig.jwtParser(new JwtKeyRing(jwtConfig, secretKey));
+        String legacyToken = Jwts.builder().subject("testuser").signWith(secretKey, Jwts.SIG.HS512).compact();
+
+        // When / Then
+        assertThatThrownBy(() -> parser.parseSignedClaims(legacyToken))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void locate_Es256WithoutKeyIdDuringMigration_ShouldFallBackToSharedSecret() {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("ES256");
+        jwtConfig.getSigning().setLegacyTokensUntil(Instant.now().plusSeconds(3600));
+        JwtParser parser = jwtConfig.jwtParser(new JwtKeyRing(jwtConfig, secretKey));
+        String legacyToken = Jwts.builder().subject("testuser").signWith(secretKey, Jwts.SIG.HS512).compact();
+
+        // When
+        String subject = parser.parseSignedClaims(legacyToken).getPayload().getSubject();
+
+        // Then
+        assertThat(subject).isEqualTo("testuser");
+    }
+
+    @Test
+    void locate_Es256WithoutKeyIdAfterMigration_ShouldReject() {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("ES256");
+        jwtConfig.getSigning().setLegacyTokensUntil(Instant.now().minusSeconds(1));
+        JwtParser parser = jwtConfig.jwtParser(new JwtKeyRing(jwtConfig, secretKey));
+        String legacyToken = Jwts.builder().subject("testuser").signWith(secretKey, Jwts.SIG.HS512).compact();
+
+        // When / Then
+        assertThatThrownBy(() -> parser.parseSignedClaims(legacyToken))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void locate_WithUnknownKeyId_ShouldReject() {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("ES256");
+        JwtParser parser = jwtConfig.jwtParser(new JwtKeyRing(jwtConfig, secretKey));
+        String foreignToken = sign(new JwtKeyRing(jwtConfig, secretKey), "testuser");
+
+        // When / Then
+        assertThatThrownBy(() -> parser.parseSignedClaims(foreignToken))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void constructor_WithUnsupportedAlgorithm_ShouldThrow() {
+        // Given
+        jwtConfig.getSigning().setAlgorithm("RS1");
+
+        // When / Then
+        assertThatThrownBy(() -> new JwtKeyRing(jwtConfig, secretKey))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String sign(JwtKeyRing keyRing, String subject) {
+        JwtKeyRing.SigningKey signingKey = keyRing.currentKey();
+        return Jwts.builder()
+                .header().keyId(signingKey.keyId()).and()
+                .subject(subject)
+                .signWith(signingKey.signingKey(), keyRing.algorithm())
+                .compact();
+    }
+}
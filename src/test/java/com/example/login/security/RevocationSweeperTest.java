@@ -0,0 +1,74 @@
+package com.example.login.security;
+
+import com.example.login.config.JwtConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationSweeperTest {
+
+    @Mock
+    private TokenRevocationStore revocationStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RevocationSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.getRevocation().setSweepBatchBuckets(4);
+        jwtConfig.getRevocation().setSweepTimeBudget(1000);
+        sweeper = new RevocationSweeper(revocationStore, jwtConfig, meterRegistry);
+    }
+
+    @Test
+    void sweep_ShouldEvictInBatchesUntilNothingIsLeft() {
+        // Given
+        when(revocationStore.removeExpired(anyLong(), eq(4))).thenReturn(10, 5, 0);
+
+        // When
+        int evicted = sweeper.sweep();
+
+        // Then
+        assertThat(evicted).isEqualTo(15);
+        verify(revocationStore, times(3)).removeExpired(anyLong(), eq(4));
+        assertThat(meterRegistry.counter("jwt.revocations.evicted").count()).isEqualTo(15.0);
+        assertThat(meterRegistry.get("jwt.revocations.sweep.evictions").summary().totalAmount()).isEqualTo(15.0);
+        assertThat(meterRegistry.get("jwt.revocations.sweep.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_ShouldStopWhenTimeBudgetIsSpent() {
+        // Given
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.getRevocation().setSweepTimeBudget(0);
+        RevocationSweeper budgetedSweeper = new RevocationSweeper(revocationStore, jwtConfig, new SimpleMeterRegistry());
+        when(revocationStore.removeExpired(anyLong(), anyInt())).thenReturn(1);
+
+        // When
+        int evicted = budgetedSweeper.sweep();
+
+        // Then
+        assertThat(evicted).isEqualTo(1);
+        verify(revocationStore, times(1)).removeExpired(anyLong(), anyInt());
+    }
+
+    @Test
+    void sizeGauge_ShouldReportStoreSize() {
+        // Given
+        when(revocationStore.size()).thenReturn(42L);
+
+        // Then
+        assertThat(meterRegistry.get("jwt.revocations.size").gauge().value()).isEqualTo(42.0);
+    }
+}
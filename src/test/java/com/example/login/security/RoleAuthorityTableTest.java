@@ -0,0 +1,112 @@
+package com.example.login.security;
+
+import com.example.login.entity.Role;
+import com.example.login.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoleAuthorityTableTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    private RoleAuthorityTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = new RoleAuthorityTable(roleRepository);
+    }
+
+    @Test
+    void authorityFor_ShouldShareInstanceForKnownRoles() {
+        // Given
+        when(roleRepository.findAll()).thenReturn(List.of(new Role("ADMIN"), new Role("ROLE_USER")));
+        table.refresh();
+
+        // When
+        GrantedAuthority admin = table.authorityFor("ADMIN");
+        GrantedAuthority user = table.authorityFor("ROLE_USER");
+
+        // Then
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(admin.getAuthority()).isEqualTo("ROLE_ADMIN");
+        assertThat(user.getAuthority()).isEqualTo("ROLE_USER");
+        assertThat(table.authorityFor("ADMIN")).isSameAs(admin);
+    }
+
+    @Test
+    void authoritiesFor_SameRoleSet_ShouldReturnSharedList() {
+        // Given
+        when(roleRepository.findAll()).thenReturn(List.of(new Role("ADMIN"), new Role("USER")));
+        table.refresh();
+
+        // When
+        List<GrantedAuthority> first = table.authoritiesFor(List.of("ADMIN", "USER"));
+        List<GrantedAuthority> second = table.authoritiesFor(new ArrayList<>(List.of("ADMIN", "USER")));
+
+        // Then
+        assertThat(first).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(second).isSameAs(first);
+        assertThat(first.get(0)).isSameAs(table.authorityFor("ADMIN"));
+    }
+
+    @Test
+    void authoritiesFor_UnknownRole_ShouldMapItAndReuseTheSet() {
+        // When
+        List<GrantedAuthority> first = table.authoritiesFor(List.of("ROLE_AUDITOR"));
+        List<GrantedAuthority> second = table.authoritiesFor(List.of("ROLE_AUDITOR"));
+
+        // Then
+        assertThat(first).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_AUDITOR");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void authoritiesFor_NoRoles_ShouldReturnEmptyList() {
+        // When / Then
+        assertThat(table.authoritiesFor(List.of())).isEmpty();
+    }
+
+    @Test
+    void authoritiesFor_ShouldStopInterningPastTheBound() {
+        // Given
+        for (int i = 0; i < RoleAuthorityTable.MAX_ROLE_SETS; i++) {
+            table.authoritiesFor(List.of("ROLE_" + i));
+        }
+
+        // When
+        List<GrantedAuthority> first = table.authoritiesFor(List.of("ROLE_OVERFLOW"));
+        List<GrantedAuthority> second = table.authoritiesFor(List.of("ROLE_OVERFLOW"));
+
+        // Then
+        assertThat(second).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @Test
+    void refresh_WhenRepositoryFails_ShouldKeepPreviousTable() {
+        // Given
+        when(roleRepository.findAll())
+                .thenReturn(List.of(new Role("ADMIN")))
+                .thenThrow(new IllegalStateException("database unavailable"));
+        table.refresh();
+        GrantedAuthority admin = table.authorityFor("ADMIN");
+
+        // When
+        table.refresh();
+
+        // Then
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(table.authorityFor("ADMIN")).isSameAs(admin);
+    }
+}
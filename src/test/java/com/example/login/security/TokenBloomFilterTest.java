@@ -0,0 +1,64 @@
+package com.example.login.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissAddedKeys() {
+        // Given
+        TokenBloomFilter filter = TokenBloomFilter.create(1000, 0.01);
+        List<TokenKey> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(TokenKey.random());
+        }
+
+        // When
+        keys.forEach(filter::add);
+
+        // Then
+        assertThat(keys).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositivesNearTarget() {
+        // Given
+        TokenBloomFilter filter = TokenBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(TokenKey.random());
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(TokenKey.random())) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void create_ShouldSizeFilterFromExpectedInsertions() {
+        // When
+        TokenBloomFilter filter = TokenBloomFilter.create(1000, 0.01);
+
+        // Then
+        assertThat(filter.bitSize()).isGreaterThanOrEqualTo(9586).isEqualTo(filter.bitSize() / 64 * 64);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    void create_WithInvalidFalsePositiveRate_ShouldThrow() {
+        assertThatThrownBy(() -> TokenBloomFilter.create(1000, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.login.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenKeyTest {
+
+    @Test
+    void digest_ShouldBeStableForSameToken() {
+        assertThat(TokenKey.digest("a.b.c")).isEqualTo(TokenKey.digest("a.b.c"));
+        assertThat(TokenKey.digest("a.b.c")).isNotEqualTo(TokenKey.digest("a.b.d"));
+    }
+
+    @Test
+    void toId_ShouldRoundTripThroughFromId() {
+        // Given
+        TokenKey key = TokenKey.random();
+
+        // When
+        String id = key.toId();
+
+        // Then
+        assertThat(id).hasSize(22);
+        assertThat(TokenKey.fromId(id)).isEqualTo(key);
+    }
+
+    @Test
+    void random_ShouldGenerateDistinctKeys() {
+        assertThat(TokenKey.random()).isNotEqualTo(TokenKey.random());
+    }
+
+    @Test
+    void fromId_WithForeignId_ShouldFallBackToDigest() {
+        // Given
+        String foreignId = "550e8400-e29b-41d4-a716-446655440000";
+
+        // When / Then
+        assertThat(TokenKey.fromId(foreignId)).isEqualTo(TokenKey.digest(foreignId));
+        assertThat(TokenKey.fromId("!!!!!!!!!!!!!!!!!!!!!!")).isEqualTo(TokenKey.digest("!!!!!!!!!!!!!!!!!!!!!!"));
+    }
+}
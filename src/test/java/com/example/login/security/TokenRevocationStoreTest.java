@@ -0,0 +1,87 @@
+package com.example.login.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationStoreTest {
+
+    private TokenRevocationStore store;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        store = new TokenRevocationStore();
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void revoke_ShouldMarkTokenAsRevoked() {
+        // Given
+        TokenKey key = TokenKey.digest("a.b.c");
+        long expiresAt = now + 3_600_000;
+
+        // When
+        store.revoke(key, expiresAt);
+
+        // Then
+        assertThat(store.isRevoked(key, expiresAt)).isTrue();
+        assertThat(store.isRevoked(TokenKey.digest("a.b.d"), expiresAt)).isFalse();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void revoke_SameTokenTwice_ShouldCountOnce() {
+        // Given
+        TokenKey key = TokenKey.digest("a.b.c");
+        long expiresAt = now + 3_600_000;
+
+        // When
+        store.revoke(key, expiresAt);
+        store.revoke(key, expiresAt);
+
+        // Then
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void revoke_WithAlreadyExpiredToken_ShouldBeIgnored() {
+        // When
+        store.revoke(TokenKey.digest("a.b.c"), now - 1_000);
+
+        // Then
+        assertThat(store.size()).isZero();
+        assertThat(store.bucketCount()).isZero();
+    }
+
+    @Test
+    void removeExpired_ShouldDropWholeBucketsThatHaveElapsed() {
+        // Given
+        store.revoke(TokenKey.digest("t1"), now + 60_000);
+        store.revoke(TokenKey.digest("t2"), now + 60_000);
+        store.revoke(TokenKey.digest("t3"), now + 10 * 60_000);
+
+        // When
+        int removed = store.removeExpired(now + 5 * 60_000, Integer.MAX_VALUE);
+
+        // Then
+        assertThat(removed).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.isRevoked(TokenKey.digest("t3"), now + 10 * 60_000)).isTrue();
+    }
+
+    @Test
+    void removeExpired_ShouldRespectBucketLimit() {
+        // Given
+        store.revoke(TokenKey.digest("t1"), now + 60_000);
+        store.revoke(TokenKey.digest("t2"), now + 3 * 60_000);
+
+        // When
+        int removed = store.removeExpired(now + 10 * 60_000, 1);
+
+        // Then
+        assertThat(removed).isEqualTo(1);
+        assertThat(store.bucketCount()).isEqualTo(1);
+    }
+}
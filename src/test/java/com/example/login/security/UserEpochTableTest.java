@@ -0,0 +1,87 @@
+package com.example.login.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserEpochTableTest {
+
+    @Test
+    void get_ShouldReturnStoredEpochsAndZeroForUnknownUsers() {
+        // Given
+        UserEpochTable table = UserEpochTable.of(new long[]{1L, 2L, 1000L}, new long[]{3L, 1L, 7L}, 3);
+
+        // Then
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(table.get(1L)).isEqualTo(3L);
+        assertThat(table.get(2L)).isEqualTo(1L);
+        assertThat(table.get(1000L)).isEqualTo(7L);
+        assertThat(table.get(999L)).isZero();
+    }
+
+    @Test
+    void of_ShouldSkipZeroEpochsAndInvalidIds() {
+        // Given
+        UserEpochTable table = UserEpochTable.of(new long[]{1L, 0L, -5L}, new long[]{0L, 4L, 4L}, 3);
+
+        // Then
+        assertThat(table.size()).isZero();
+        assertThat(table.get(1L)).isZero();
+    }
+
+    @Test
+    void with_ShouldReplaceEpochWithoutMutatingOriginal() {
+        // Given
+        UserEpochTable original = UserEpochTable.of(new long[]{1L}, new long[]{1L}, 1);
+
+        // When
+        UserEpochTable updated = original.with(1L, 2L).with(42L, 1L);
+
+        // Then
+        assertThat(original.get(1L)).isEqualTo(1L);
+        assertThat(updated.get(1L)).isEqualTo(2L);
+        assertThat(updated.get(42L)).isEqualTo(1L);
+        assertThat(updated.size()).isEqualTo(2);
+    }
+
+    @Test
+    void with_OnEmptyTable_ShouldAddUser() {
+        assertThat(UserEpochTable.EMPTY_TABLE.with(5L, 1L).get(5L)).isEqualTo(1L);
+    }
+
+    @Test
+    void mergeMax_ShouldKeepHighestEpochPerUser() {
+        // Given
+        UserEpochTable fromDatabase = UserEpochTable.of(new long[]{1L, 2L}, new long[]{1L, 5L}, 2);
+        UserEpochTable local = UserEpochTable.of(new long[]{1L, 3L}, new long[]{2L, 1L}, 2);
+
+        // When
+        UserEpochTable merged = fromDatabase.mergeMax(local);
+
+        // Then
+        assertThat(merged.get(1L)).isEqualTo(2L);
+        assertThat(merged.get(2L)).isEqualTo(5L);
+        assertThat(merged.get(3L)).isEqualTo(1L);
+        assertThat(merged.size()).isEqualTo(3);
+    }
+
+    @Test
+    void get_WithManyUsers_ShouldResolveCollisions() {
+        // Given
+        int count = 1000;
+        long[] ids = new long[count];
+        long[] epochs = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            epochs[i] = i % 7 + 1;
+        }
+
+        // When
+        UserEpochTable table = UserEpochTable.of(ids, epochs, count);
+
+        // Then
+        for (int i = 0; i < count; i++) {
+            assertThat(table.get(ids[i])).isEqualTo(epochs[i]);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.login.security;
+
+import com.example.login.config.JwtConfig;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private JwtConfig jwtConfig;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.getCache().setEnabled(true);
+        jwtConfig.getCache().setMaximumSize(100);
+    }
+
+    private VerifiedToken verifiedToken(String token, long expiresInMillis) {
+        return VerifiedToken.of(token, Jwts.claims()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .add("roles", List.of("ROLE_USER"))
+                .build());
+    }
+
+    @Test
+    void get_AfterPut_ShouldReturnCachedToken() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig);
+        VerifiedToken verifiedToken = verifiedToken("a.b.c", 60_000);
+
+        // When
+        cache.put(verifiedToken);
+
+        // Then
+        assertThat(cache.get("a.b.c")).isSameAs(verifiedToken);
+        assertThat(cache.get("a.b.d")).isNull();
+    }
+
+    @Test
+    void get_WithExpiredToken_ShouldMiss() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig);
+
+        // When
+        cache.put(verifiedToken("a.b.c", -1_000));
+
+        // Then
+        assertThat(cache.get("a.b.c")).isNull();
+    }
+
+    @Test
+    void invalidate_ShouldRemoveToken() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig);
+        cache.put(verifiedToken("a.b.c", 60_000));
+
+        // When
+        cache.invalidate("a.b.c");
+
+        // Then
+        assertThat(cache.get("a.b.c")).isNull();
+    }
+
+    @Test
+    void put_WhenDisabled_ShouldNotStore() {
+        // Given
+        jwtConfig.getCache().setEnabled(false);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig);
+
+        // When
+        cache.put(verifiedToken("a.b.c", 60_000));
+
+        // Then
+        assertThat(cache.get("a.b.c")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
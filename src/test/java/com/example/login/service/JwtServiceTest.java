@@ -2,15 +2,24 @@ package com.example.login.service;
 
 import com.example.login.config.JwtConfig;
 import com.example.login.entity.User;
+import com.example.login.security.InMemoryRevocationBackend;
+import com.example.login.security.JwtKeyRing;
+import com.example.login.security.RevocationBackend;
+import com.example.login.security.TokenKey;
+import com.example.login.security.TokenRevocationStore;
+import com.example.login.security.VerifiedToken;
+import com.example.login.security.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class JwtServiceTest {
 
@@ -29,9 +38,10 @@ class JwtServiceTest {
         jwtConfig.setIssuer("test-app");
         
         // Create a real secret key for testing
-        SecretKey realSecretKey = Jwts.SIG.HS512.key().build();
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, Jwts.SIG.HS512.key().build());
         
-        jwtService = new JwtService(jwtConfig, realSecretKey);
+        jwtService = new JwtService(jwtConfig, keyRing, jwtConfig.jwtParser(keyRing),
+                new VerifiedTokenCache(jwtConfig), revocationService(new InMemoryRevocationBackend()));
         
         testUser = User.builder()
                 .id(1L)
@@ -164,4 +174,147 @@ class JwtServiceTest {
         assertThat(expiration).isNotNull();
         assertThat(expiration).isAfter(new Date());
     }
+
+    @Test
+    void verifyToken_ShouldExposeAllClaimsFromSingleParse() {
+        // Given
+        String token = jwtService.generateToken(testUser, testRoles, testClientIds);
+
+        // When
+        VerifiedToken verifiedToken = jwtService.verifyToken(token);
+
+        // Then
+        assertThat(verifiedToken.getToken()).isEqualTo(token);
+        assertThat(verifiedToken.getUsername()).isEqualTo("testuser");
+        assertThat(verifiedToken.getRoles()).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+        assertThat(verifiedToken.getClients()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(verifiedToken.getExpiration()).isAfter(new Date());
+    }
+
+    @Test
+    void verifyToken_WithTamperedToken_ShouldThrow() {
+        // Given
+        String token = jwtService.generateToken(testUser, testRoles, testClientIds);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // When / Then
+        assertThatThrownBy(() -> jwtService.verifyToken(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void validateToken_WithVerifiedToken_ShouldReturnTrue() {
+        // Given
+        VerifiedToken verifiedToken = jwtService.verifyToken(
+                jwtService.generateToken(testUser, testRoles, testClientIds));
+
+        // When / Then
+        assertThat(jwtService.validateToken(verifiedToken, "testuser")).isTrue();
+        assertThat(jwtService.validateToken(verifiedToken, "wronguser")).isFalse();
+    }
+
+    @Test
+    void validateToken_WithBlacklistedVerifiedToken_ShouldReturnFalse() {
+        // Given
+        String token = jwtService.generateToken(testUser, testRoles, testClientIds);
+        VerifiedToken verifiedToken = jwtService.verifyToken(token);
+        jwtService.blacklistToken(token);
+
+        // When / Then
+        assertThat(jwtService.isTokenBlacklisted(verifiedToken)).isTrue();
+        assertThat(jwtService.validateToken(verifiedToken, "testuser")).isFalse();
+    }
+
+    @Test
+    void verifyToken_WithCacheEnabled_ShouldReuseVerifiedToken() {
+        // Given
+        jwtConfig.getCache().setEnabled(true);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig);
+        JwtKeyRing keys = new JwtKeyRing(jwtConfig, Jwts.SIG.HS512.key().build());
+        JwtService cachingService = new JwtService(jwtConfig, keys, jwtConfig.jwtParser(keys), cache,
+                revocationService(new InMemoryRevocationBackend()));
+        String token = cachingService.generateToken(testUser, testRoles, testClientIds);
+
+        // When
+        VerifiedToken first = cachingService.verifyToken(token);
+        VerifiedToken second = cachingService.verifyToken(token);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void blacklistToken_WithCacheEnabled_ShouldDropCachedEntry() {
+        // Given
+        jwtConfig.getCache().setEnabled(true);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig);
+        JwtKeyRing keys = new JwtKeyRing(jwtConfig, Jwts.SIG.HS512.key().build());
+        JwtService cachingService = new JwtService(jwtConfig, keys, jwtConfig.jwtParser(keys), cache,
+                revocationService(new InMemoryRevocationBackend()));
+        String token = cachingService.generateToken(testUser, testRoles, testClientIds);
+        cachingService.verifyToken(token);
+
+        // When
+        cachingService.blacklistToken(token);
+
+        // Then
+        assertThat(cache.get(token)).isNull();
+        assertThat(cachingService.validateToken(token, "testuser")).isFalse();
+    }
+
+    @Test
+    void generateToken_ShouldAssignUniqueTokenId() {
+        // Given
+        String first = jwtService.generateToken(testUser, testRoles, testClientIds);
+        String second = jwtService.generateToken(testUser, testRoles, testClientIds);
+
+        // When
+        VerifiedToken firstVerified = jwtService.verifyToken(first);
+        VerifiedToken secondVerified = jwtService.verifyToken(second);
+
+        // Then
+        assertThat(firstVerified.getTokenId()).hasSize(22);
+        assertThat(firstVerified.getTokenId()).isNotEqualTo(secondVerified.getTokenId());
+        assertThat(firstVerified.revocationKey()).isEqualTo(TokenKey.fromId(firstVerified.getTokenId()));
+    }
+
+    @Test
+    void blacklistToken_ShouldOnlyRevokeThatTokenId() {
+        // Given
+        String revoked = jwtService.generateToken(testUser, testRoles, testClientIds);
+        String active = jwtService.generateToken(testUser, testRoles, testClientIds);
+
+        // When
+        jwtService.blacklistToken(revoked);
+
+        // Then
+        assertThat(jwtService.isTokenBlacklisted(revoked)).isTrue();
+        assertThat(jwtService.isTokenBlacklisted(active)).isFalse();
+    }
+
+    @Test
+    void blacklistToken_OnAnotherNode_ShouldBeSeenAfterSync() {
+        // Given
+        RevocationBackend sharedBackend = new InMemoryRevocationBackend();
+        JwtKeyRing keys = new JwtKeyRing(jwtConfig, Jwts.SIG.HS512.key().build());
+        TokenRevocationService revocationA = revocationService(sharedBackend);
+        TokenRevocationService revocationB = revocationService(sharedBackend);
+        JwtService nodeA = new JwtService(jwtConfig, keys, jwtConfig.jwtParser(keys),
+                new VerifiedTokenCache(jwtConfig), revocationA);
+        JwtService nodeB = new JwtService(jwtConfig, keys, jwtConfig.jwtParser(keys),
+                new VerifiedTokenCache(jwtConfig), revocationB);
+        String token = nodeA.generateToken(testUser, testRoles, testClientIds);
+
+        // When
+        nodeA.blacklistToken(token);
+        revocationB.sync();
+
+        // Then
+        assertThat(nodeB.isTokenBlacklisted(token)).isTrue();
+        assertThat(nodeB.validateToken(token, "testuser")).isFalse();
+    }
+
+    private TokenRevocationService revocationService(RevocationBackend backend) {
+        return new TokenRevocationService(backend, new TokenRevocationStore(), jwtConfig, new SimpleMeterRegistry());
+    }
 }
@@ -0,0 +1,120 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LastLoginWriterTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private LoginConfig loginConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private LastLoginWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, date_last_login TIMESTAMP NULL, "
+                + "date_updated TIMESTAMP NOT NULL)");
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO users (id, date_updated) VALUES (?, ?)", id, CREATED);
+        }
+        loginConfig = new LoginConfig();
+        loginConfig.getLastLogin().setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new LastLoginWriter(jdbcTemplate, loginConfig, meterRegistry);
+    }
+
+    @Test
+    void flush_ShouldWriteLatestTimestampPerUserInBatches() {
+        // Given
+        LocalDateTime first = LocalDateTime.of(2024, 6, 1, 10, 0);
+        LocalDateTime second = first.plusMinutes(5);
+        writer.record(1L, second);
+        writer.record(1L, first);
+        writer.record(2L, first);
+        writer.record(3L, second);
+
+        // When
+        int written = writer.flush();
+
+        // Then
+        assertThat(written).isEqualTo(3);
+        assertThat(lastLogin(1L)).isEqualTo(second);
+        assertThat(lastLogin(2L)).isEqualTo(first);
+        assertThat(lastLogin(3L)).isEqualTo(second);
+        assertThat(lastLogin(4L)).isNull();
+        assertThat(writer.pendingCount()).isZero();
+    }
+
+    @Test
+    void flush_ShouldNotTouchDateUpdated() {
+        // Given
+        writer.record(1L, LocalDateTime.of(2024, 6, 1, 10, 0));
+
+        // When
+        writer.flush();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT date_updated FROM users WHERE id = 1", LocalDateTime.class))
+                .isEqualTo(CREATED);
+    }
+
+    @Test
+    void record_WhenBufferFull_ShouldDropNewUsersButUpdateBufferedOnes() {
+        // Given
+        loginConfig.getLastLogin().setMaxPending(1);
+        LocalDateTime loginTime = LocalDateTime.of(2024, 6, 1, 10, 0);
+        writer.record(1L, loginTime);
+
+        // When
+        boolean newUser = writer.record(2L, loginTime);
+        boolean bufferedUser = writer.record(1L, loginTime.plusMinutes(1));
+
+        // Then
+        assertThat(newUser).isFalse();
+        assertThat(bufferedUser).isTrue();
+        assertThat(meterRegistry.counter("users.last-login.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldKeepTimestampsPending() {
+        // Given
+        jdbcTemplate.execute("DROP TABLE users");
+        writer.record(1L, LocalDateTime.of(2024, 6, 1, 10, 0));
+
+        // When
+        int written = writer.flush();
+
+        // Then
+        assertThat(written).isZero();
+        assertThat(writer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdown_ShouldFlushPendingTimestamps() {
+        // Given
+        writer.record(5L, LocalDateTime.of(2024, 6, 1, 10, 0));
+
+        // When
+        writer.shutdown();
+
+        // Then
+        assertThat(lastLogin(5L)).isNotNull();
+    }
+
+    private LocalDateTime lastLogin(long id) {
+        return jdbcTemplate.queryForObject("SELECT date_last_login FROM users WHERE id = ?", LocalDateTime.class, id);
+    }
+}
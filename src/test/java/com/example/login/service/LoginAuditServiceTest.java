@@ -0,0 +1,109 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginAuditServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LoginConfig loginConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAuditService auditService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE logs_logins (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                + "type VARCHAR(64) NOT NULL, date_created TIMESTAMP NOT NULL, date_updated TIMESTAMP NOT NULL)");
+        loginConfig = new LoginConfig();
+        loginConfig.getAudit().setBufferSize(4);
+        loginConfig.getAudit().setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        auditService = new LoginAuditService(jdbcTemplate, loginConfig, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditService.stop();
+    }
+
+    @Test
+    void drain_ShouldInsertBufferedEventsInBatches() {
+        // Given
+        auditService.recordLogin(1L);
+        auditService.recordLogout(1L);
+        auditService.recordLogin(2L);
+
+        // When
+        int written = auditService.drain();
+
+        // Then
+        assertThat(written).isEqualTo(3);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT user_id, type FROM logs_logins ORDER BY id");
+        assertThat(rows).extracting(row -> row.get("TYPE")).containsExactly("LOGIN", "LOGOUT", "LOGIN");
+        assertThat(rows).extracting(row -> ((Number) row.get("USER_ID")).longValue()).containsExactly(1L, 1L, 2L);
+        assertThat(meterRegistry.counter("login.audit.written").count()).isEqualTo(3);
+    }
+
+    @Test
+    void record_WhenBufferFull_ShouldDropAndCount() {
+        // Given
+        for (long userId = 1; userId <= 4; userId++) {
+            auditService.recordLogin(userId);
+        }
+
+        // When
+        boolean accepted = auditService.recordLogin(5L);
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(meterRegistry.counter("login.audit.dropped").count()).isEqualTo(1);
+        assertThat(auditService.pendingCount()).isEqualTo(4);
+    }
+
+    @Test
+    void record_WithNullUserId_ShouldBeIgnored() {
+        assertThat(auditService.recordLogout(null)).isFalse();
+        assertThat(auditService.pendingCount()).isZero();
+    }
+
+    @Test
+    void writer_ShouldDrainInBackgroundAndOnStop() {
+        // Given
+        auditService.start();
+
+        // When
+        auditService.recordLogin(1L);
+        auditService.stop();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM logs_logins", Integer.class)).isEqualTo(1);
+        assertThat(auditService.pendingCount()).isZero();
+    }
+
+    @Test
+    void drain_WhenInsertFails_ShouldCountLostEvents() {
+        // Given
+        jdbcTemplate.execute("DROP TABLE logs_logins");
+        auditService.recordLogin(1L);
+
+        // When
+        int written = auditService.drain();
+
+        // Then
+        assertThat(written).isZero();
+        assertThat(meterRegistry.counter("login.audit.failed").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.entity.User.PasswordType;
+import com.example.login.service.PasswordCostCalibrator.Calibration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordCostCalibratorTest {
+
+    private LoginConfig loginConfig;
+    private PasswordCostCalibrator calibrator;
+
+    @BeforeEach
+    void setUp() {
+        loginConfig = new LoginConfig();
+        LoginConfig.PasswordPolicyProperties policy = loginConfig.getPasswordPolicy();
+        // Cheap baselines so the calibration has something to raise; a target well above
+        // a cold, unJITted hash keeps the result stable on slow build hosts
+        policy.setArgon2MemoryKb(1024);
+        policy.setArgon2Iterations(1);
+        policy.setPbkdf2Iterations(1000);
+        policy.setBcryptCost(4);
+        policy.getCalibration().setTargetMillis(100);
+        policy.getCalibration().setSamples(3);
+        calibrator = new PasswordCostCalibrator(loginConfig);
+    }
+
+    @Test
+    void calibrate_ShouldRaiseCheapCostsTowardsTarget() {
+        // When
+        Map<PasswordType, Calibration> calibrations = calibrator.calibrate();
+
+        // Then
+        LoginConfig.PasswordPolicyProperties policy = loginConfig.getPasswordPolicy();
+        assertThat(calibrations).containsOnlyKeys(PasswordType.ARGON2ID, PasswordType.PBKDF2, PasswordType.BCRYPT);
+        assertThat(policy.getPbkdf2Iterations()).isGreaterThan(1000);
+        assertThat(policy.getBcryptCost()).isGreaterThan(4);
+        assertThat(calibrations.get(PasswordType.PBKDF2).parameters()).containsEntry("i", policy.getPbkdf2Iterations());
+        assertThat(calibrations.get(PasswordType.BCRYPT).parameters()).containsEntry("cost", policy.getBcryptCost());
+        assertThat(calibrations.get(PasswordType.ARGON2ID).parameters())
+                .containsEntry("m", 1024)
+                .containsEntry("t", policy.getArgon2Iterations());
+        assertThat(calibrations.values()).allSatisfy(calibration -> {
+            assertThat(calibration.measuredMillis()).isPositive();
+            assertThat(calibration.targetMillis()).isEqualTo(100);
+        });
+        assertThat(calibrator.getCalibrations()).isEqualTo(calibrations);
+    }
+
+    @Test
+    void calibrate_ShouldNeverLowerConfiguredCosts() {
+        // Given
+        loginConfig.getPasswordPolicy().setPbkdf2Iterations(50_000);
+        loginConfig.getPasswordPolicy().getCalibration().setTargetMillis(1);
+
+        // When
+        calibrator.calibrate();
+
+        // Then
+        assertThat(loginConfig.getPasswordPolicy().getPbkdf2Iterations()).isEqualTo(50_000);
+        assertThat(loginConfig.getPasswordPolicy().getArgon2Iterations()).isEqualTo(1);
+        assertThat(loginConfig.getPasswordPolicy().getBcryptCost()).isEqualTo(4);
+    }
+
+    @Test
+    void calibrate_WhenDisabled_ShouldKeepConfiguredCosts() {
+        // Given
+        loginConfig.getPasswordPolicy().getCalibration().setEnabled(false);
+
+        // When
+        Map<PasswordType, Calibration> calibrations = calibrator.calibrate();
+
+        // Then
+        assertThat(calibrations).isEmpty();
+        assertThat(loginConfig.getPasswordPolicy().getBcryptCost()).isEqualTo(4);
+    }
+}
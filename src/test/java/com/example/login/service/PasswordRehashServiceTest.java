@@ -0,0 +1,157 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.entity.User;
+import com.example.login.entity.User.PasswordType;
+import com.example.login.repository.UserRepository;
+import com.example.login.repository.UserRoleRepository;
+import com.example.login.util.PasswordHashUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordRehashServiceTest {
+
+    private static final String MD5_SALT = "b741c9d3d3c18125e3ddd5ca0e0125c5";
+    private static final String MD5_HASH = "a7a372980bee87cba4896863c7d65690";
+
+    private JdbcTemplate jdbcTemplate;
+    private LoginConfig loginConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordService passwordService;
+    private UserAuthzCache authzCache;
+    private PasswordRehashService rehashService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, password_type VARCHAR(16) NOT NULL, "
+                + "password_salt VARCHAR(255) NOT NULL, password_hash VARCHAR(255) NOT NULL, "
+                + "date_updated TIMESTAMP NOT NULL)");
+        jdbcTemplate.update("INSERT INTO users VALUES (1, 'MD5', ?, ?, TIMESTAMP '2024-01-01 00:00:00')",
+                MD5_SALT, MD5_HASH);
+        loginConfig = new LoginConfig();
+        loginConfig.getPasswordPolicy().setArgon2MemoryKb(1024);
+        loginConfig.getPasswordPolicy().setArgon2Iterations(1);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordService = new PasswordService(new PasswordVerificationExecutor(loginConfig, meterRegistry), loginConfig);
+        authzCache = mock(UserAuthzCache.class);
+        rehashService = new PasswordRehashService(passwordService, jdbcTemplate, authzCache, loginConfig, meterRegistry);
+    }
+
+    @Test
+    void rehashIfNeeded_ShouldReencodeLegacyHashInBackground() {
+        // Given
+        User user = legacyUser();
+
+        // When
+        boolean scheduled = rehashService.rehashIfNeeded(user, "test123");
+        rehashService.shutdown();
+
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM users WHERE id = 1");
+        assertThat(scheduled).isTrue();
+        assertThat(row.get("PASSWORD_TYPE")).isEqualTo("ARGON2ID");
+        assertThat((String) row.get("PASSWORD_SALT")).startsWith("m=1024,t=1,p=1$");
+        assertThat(PasswordHashUtil.isValid(PasswordType.ARGON2ID, (String) row.get("PASSWORD_SALT"),
+                "test123", (String) row.get("PASSWORD_HASH"))).isTrue();
+        assertThat(row.get("DATE_UPDATED").toString()).doesNotStartWith("2024-01-01");
+        assertThat(meterRegistry.get("password.rehash.completed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rehashIfNeeded_WhenHashMatchesPolicy_ShouldDoNothing() {
+        // Given
+        User user = legacyUser();
+        user.setPasswordType(PasswordType.ARGON2ID);
+        user.setPasswordSalt(passwordService.generateSalt(PasswordType.ARGON2ID));
+
+        // When
+        boolean scheduled = rehashService.rehashIfNeeded(user, "test123");
+
+        // Then
+        assertThat(scheduled).isFalse();
+    }
+
+    @Test
+    void rehashIfNeeded_WhenDisabled_ShouldDoNothing() {
+        // Given
+        loginConfig.getPasswordPolicy().setRehashOnLogin(false);
+
+        // When
+        boolean scheduled = rehashService.rehashIfNeeded(legacyUser(), "test123");
+
+        // Then
+        assertThat(scheduled).isFalse();
+    }
+
+    @Test
+    void rehash_WhenPasswordChangedMeanwhile_ShouldKeepNewPassword() {
+        // Given
+        jdbcTemplate.update("UPDATE users SET password_hash = 'changed' WHERE id = 1");
+
+        // When
+        boolean written = rehashService.rehash(1L, MD5_HASH, "test123");
+
+        // Then
+        assertThat(written).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT password_hash FROM users WHERE id = 1", String.class))
+                .isEqualTo("changed");
+        assertThat(meterRegistry.get("password.rehash.conflicts").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rehash_ShouldDropCachedSnapshotOfUser() {
+        // When
+        boolean written = rehashService.rehash(1L, MD5_HASH, "test123");
+
+        // Then
+        assertThat(written).isTrue();
+        verify(authzCache).invalidate(1L);
+    }
+
+    @Test
+    void rehash_ShouldDropSnapshotCachedOnOtherNodes() {
+        // Given
+        jdbcTemplate.execute("CREATE TABLE user_roles (id_user BIGINT, date_updated TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE client_roles (date_updated TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE roles (date_updated TIMESTAMP NOT NULL)");
+        UserRepository userRepository = mock(UserRepository.class);
+        UserRoleRepository userRoleRepository = mock(UserRoleRepository.class);
+        when(userRepository.findByUsername("sp1admin")).thenReturn(Optional.of(legacyUser()));
+        UserAuthzCache otherNodeCache = new UserAuthzCache(userRepository, userRoleRepository,
+                mock(TokenEpochService.class), jdbcTemplate, loginConfig, meterRegistry);
+        otherNodeCache.findByUsername("sp1admin");
+
+        // When
+        rehashService.rehash(1L, MD5_HASH, "test123");
+        otherNodeCache.reconcile();
+        otherNodeCache.findByUsername("sp1admin");
+
+        // Then
+        verify(userRepository, times(2)).findByUsername("sp1admin");
+    }
+
+    private static User legacyUser() {
+        return User.builder()
+                .id(1L)
+                .username("sp1admin")
+                .passwordType(PasswordType.MD5)
+                .passwordSalt(MD5_SALT)
+                .passwordHash(MD5_HASH)
+                .build();
+    }
+}
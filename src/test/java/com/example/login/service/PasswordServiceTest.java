@@ -1,11 +1,14 @@
 package com.example.login.service;
 
+import com.example.login.config.LoginConfig;
 import com.example.login.entity.User.PasswordType;
 import com.example.login.util.PasswordHashUtil.PasswordHashResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,9 +18,17 @@ class PasswordServiceTest {
 
     private PasswordService passwordService;
 
+    private LoginConfig loginConfig;
+
     @BeforeEach
     void setUp() {
-        passwordService = new PasswordService();
+        loginConfig = new LoginConfig();
+        // Cheap costs keep the KDF tests fast
+        loginConfig.getPasswordPolicy().setArgon2MemoryKb(1024);
+        loginConfig.getPasswordPolicy().setArgon2Iterations(1);
+        loginConfig.getPasswordPolicy().setPbkdf2Iterations(1000);
+        passwordService = new PasswordService(
+                new PasswordVerificationExecutor(loginConfig, new SimpleMeterRegistry()), loginConfig);
     }
 
     @Test
@@ -147,7 +158,7 @@ class PasswordServiceTest {
         PasswordType defaultType = passwordService.getDefaultPasswordType();
 
         // Then
-        assertEquals(PasswordType.MD5, defaultType);
+        assertEquals(PasswordType.ARGON2ID, defaultType);
     }
 
     @ParameterizedTest
@@ -309,4 +320,99 @@ class PasswordServiceTest {
         assertThrows(IllegalArgumentException.class, () -> 
             passwordService.generateHash("INVALID", "testpassword"));
     }
+
+    @Test
+    @DisplayName("Should verify BCRYPT passwords on the verification pool")
+    void shouldVerifyBcryptPasswordsOnVerificationPool() {
+        // Given
+        PasswordHashResult result = passwordService.generateHash(PasswordType.BCRYPT, "testpassword");
+
+        // When
+        boolean isValid = passwordService.isValid(PasswordType.BCRYPT, result.getSalt(), "testpassword", result.getHash());
+        boolean isInvalid = passwordService.isValid(PasswordType.BCRYPT, result.getSalt(), "wrongpassword", result.getHash());
+
+        // Then
+        assertTrue(isValid);
+        assertFalse(isInvalid);
+    }
+
+    @Test
+    @DisplayName("Should only treat key-stretching algorithms as slow")
+    void shouldOnlyTreatKeyStretchingAlgorithmsAsSlow() {
+        // When & Then
+        assertTrue(passwordService.isKeyStretching(PasswordType.BCRYPT));
+        assertTrue(passwordService.isKeyStretching(PasswordType.ARGON2ID));
+        assertTrue(passwordService.isKeyStretching(PasswordType.PBKDF2));
+        assertFalse(passwordService.isKeyStretching(PasswordType.MD5));
+        assertFalse(passwordService.isKeyStretching(PasswordType.SHA256));
+        assertFalse(passwordService.isKeyStretching(PasswordType.SHA512));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PasswordType.class, names = {"ARGON2ID", "PBKDF2"})
+    @DisplayName("Should hash with policy cost and verify KDF passwords")
+    void shouldHashWithPolicyCostAndVerifyKdfPasswords(PasswordType type) {
+        // When
+        PasswordHashResult result = passwordService.generateHash(type, "testpassword");
+
+        // Then
+        assertTrue(result.getSalt().startsWith(type == PasswordType.ARGON2ID ? "m=1024,t=1,p=1$" : "i=1000$"));
+        assertTrue(passwordService.isValid(type, result.getSalt(), "testpassword", result.getHash()));
+        assertFalse(passwordService.isValid(type, result.getSalt(), "wrongpassword", result.getHash()));
+    }
+
+    @Test
+    @DisplayName("Should require rehash for legacy types and outdated cost")
+    void shouldRequireRehashForLegacyTypesAndOutdatedCost() {
+        // Given
+        String currentSalt = passwordService.generateSalt(PasswordType.ARGON2ID);
+        loginConfig.getPasswordPolicy().setArgon2Iterations(3);
+
+        // When & Then
+        assertTrue(passwordService.needsRehash(PasswordType.MD5, "b741c9d3d3c18125e3ddd5ca0e0125c5"));
+        assertTrue(passwordService.needsRehash(PasswordType.BCRYPT, "$2a$10$VVb80cqWj.VEJ/zV1BXoKO"));
+        assertTrue(passwordService.needsRehash(PasswordType.ARGON2ID, currentSalt));
+        assertFalse(passwordService.needsRehash(PasswordType.ARGON2ID, passwordService.generateSalt(PasswordType.ARGON2ID)));
+    }
+
+    @Test
+    @DisplayName("Should not require rehash when the stored type and cost match the policy")
+    void shouldNotRequireRehashWhenStoredTypeAndCostMatchPolicy() {
+        // Given
+        loginConfig.getPasswordPolicy().setTargetType(PasswordType.PBKDF2);
+
+        // When & Then
+        assertFalse(passwordService.needsRehash(PasswordType.PBKDF2, passwordService.generateSalt(PasswordType.PBKDF2)));
+        assertTrue(passwordService.needsRehash(PasswordType.PBKDF2, "i=500$abcdef1234567890abcdef1234567890"));
+        assertTrue(passwordService.needsRehash(PasswordType.ARGON2ID, passwordService.generateSalt(PasswordType.ARGON2ID)));
+    }
+
+    @Test
+    @DisplayName("Should only rehash hashes weaker than the policy")
+    void shouldOnlyRehashHashesWeakerThanPolicy() {
+        // Given
+        loginConfig.getPasswordPolicy().setTargetType(PasswordType.BCRYPT);
+        loginConfig.getPasswordPolicy().setBcryptCost(6);
+
+        // When & Then
+        assertTrue(passwordService.needsRehash(PasswordType.BCRYPT, "$2a$05$VVb80cqWj.VEJ/zV1BXoKO"));
+        assertFalse(passwordService.needsRehash(PasswordType.BCRYPT, "$2a$06$VVb80cqWj.VEJ/zV1BXoKO"));
+        assertFalse(passwordService.needsRehash(PasswordType.BCRYPT, "$2a$12$VVb80cqWj.VEJ/zV1BXoKO"));
+        assertTrue(passwordService.generateSalt(PasswordType.BCRYPT).startsWith("$2a$06$"));
+    }
+
+    @Test
+    @DisplayName("Should spend a verification of the policy type on dummy checks")
+    void shouldSpendVerificationOfPolicyTypeOnDummyChecks() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        passwordService = new PasswordService(new PasswordVerificationExecutor(loginConfig, meterRegistry), loginConfig);
+
+        // When
+        passwordService.verifyDummy("testpassword");
+        passwordService.verifyDummy("otherpassword");
+
+        // Then
+        assertEquals(2, meterRegistry.get("password.verification.duration").timer().count());
+    }
 }
@@ -0,0 +1,120 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordVerificationExecutorTest {
+
+    private LoginConfig loginConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordVerificationExecutor executor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        loginConfig = new LoginConfig();
+        loginConfig.getPasswordVerification().setThreads(1);
+        loginConfig.getPasswordVerification().setQueueCapacity(1);
+        loginConfig.getPasswordVerification().setMaxWait(5000);
+        loginConfig.getPasswordVerification().setRetryAfter(3);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordVerificationExecutor(loginConfig, meterRegistry);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void verify_ShouldReturnResultAndRecordTimings() {
+        // When
+        boolean valid = executor.verify(() -> true);
+
+        // Then
+        assertThat(valid).isTrue();
+        assertThat(meterRegistry.get("password.verification.wait").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.verification.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_ShouldRunOffCallerThread() {
+        // Given
+        Thread caller = Thread.currentThread();
+
+        // When
+        boolean offloaded = executor.verify(() -> Thread.currentThread() != caller);
+
+        // Then
+        assertThat(offloaded).isTrue();
+    }
+
+    @Test
+    void verify_WhenQueueFull_ShouldRejectWithRetryAfter() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.verify(() -> {
+            started.countDown();
+            return await(release);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.runAsync(() -> executor.verify(() -> await(release)));
+        waitForQueueDepth(1);
+
+        // When / Then
+        assertThatThrownBy(() -> executor.verify(() -> true))
+                .isInstanceOf(ServiceBusyException.class)
+                .extracting(e -> ((ServiceBusyException) e).getRetryAfterSeconds())
+                .isEqualTo(3L);
+        assertThat(meterRegistry.get("password.verification.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void verify_WhenWaitExceeded_ShouldReject() {
+        // Given
+        loginConfig.getPasswordVerification().setMaxWait(50);
+
+        // When / Then
+        assertThatThrownBy(() -> executor.verify(() -> await(release)))
+                .isInstanceOf(ServiceBusyException.class);
+        assertThat(meterRegistry.get("password.verification.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void verify_ShouldPropagateVerificationErrors() {
+        // When / Then
+        assertThatThrownBy(() -> executor.verify(() -> {
+            throw new IllegalArgumentException("Unsupported password type");
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void waitForQueueDepth(double depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("password.verification.queue.depth").gauge().value() < depth
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
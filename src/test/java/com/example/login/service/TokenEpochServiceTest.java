@@ -0,0 +1,125 @@
+package com.example.login.service;
+
+import com.example.login.config.JwtConfig;
+import com.example.login.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenEpochServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenEpochService tokenEpochService;
+
+    @BeforeEach
+    void setUp() {
+        tokenEpochService = new TokenEpochService(userRepository, new JwtConfig());
+    }
+
+    @Test
+    void isCurrent_WithUnknownUser_ShouldAcceptEpochZero() {
+        assertThat(tokenEpochService.isCurrent(1L, 0L)).isTrue();
+    }
+
+    @Test
+    void revokeAll_ShouldBumpEpochAndRejectOlderTokens() {
+        // Given
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(1L));
+
+        // When
+        long epoch = tokenEpochService.revokeAll(1L);
+
+        // Then
+        assertThat(epoch).isEqualTo(1L);
+        verify(userRepository).incrementTokenEpoch(1L);
+        assertThat(tokenEpochService.isCurrent(1L, 0L)).isFalse();
+        assertThat(tokenEpochService.isCurrent(1L, 1L)).isTrue();
+        assertThat(tokenEpochService.isCurrent(2L, 0L)).isTrue();
+    }
+
+    @Test
+    void revokeAll_WithNullUserId_ShouldDoNothing() {
+        // When
+        long epoch = tokenEpochService.revokeAll(null);
+
+        // Then
+        assertThat(epoch).isZero();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void rebuild_ShouldLoadEpochsFromDatabase() {
+        // Given
+        when(userRepository.findRevokedTokenEpochs()).thenReturn(List.of(
+                new Object[]{5L, 2L, LocalDateTime.now()},
+                new Object[]{6L, 1L, LocalDateTime.now()}
+        ));
+
+        // When
+        tokenEpochService.rebuild();
+
+        // Then
+        assertThat(tokenEpochService.currentEpoch(5L)).isEqualTo(2L);
+        assertThat(tokenEpochService.currentEpoch(6L)).isEqualTo(1L);
+        assertThat(tokenEpochService.isCurrent(5L, 1L)).isFalse();
+    }
+
+    @Test
+    void refresh_ShouldNotUndoNewerLocalRevocation() {
+        // Given
+        when(userRepository.findTokenEpochById(5L)).thenReturn(Optional.of(3L));
+        tokenEpochService.revokeAll(5L);
+        when(userRepository.findTokenEpochsUpdatedSince(any())).thenReturn(
+                List.<Object[]>of(new Object[]{5L, 2L, LocalDateTime.now()}));
+
+        // When
+        tokenEpochService.refresh();
+
+        // Then
+        assertThat(tokenEpochService.currentEpoch(5L)).isEqualTo(3L);
+    }
+
+    @Test
+    void refresh_WhenDatabaseFails_ShouldKeepPreviousTable() {
+        // Given
+        when(userRepository.findTokenEpochById(5L)).thenReturn(Optional.of(1L));
+        tokenEpochService.revokeAll(5L);
+        when(userRepository.findTokenEpochsUpdatedSince(any())).thenThrow(new RuntimeException("db down"));
+
+        // When
+        tokenEpochService.refresh();
+
+        // Then
+        assertThat(tokenEpochService.currentEpoch(5L)).isEqualTo(1L);
+    }
+
+    @Test
+    void refresh_ShouldOnlyReadUsersChangedSinceLastRefreshWithOverlap() {
+        // Given
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(userRepository.findTokenEpochsUpdatedSince(any())).thenReturn(
+                List.<Object[]>of(new Object[]{5L, 2L, updated}), List.of());
+        tokenEpochService.refresh();
+
+        // When
+        int read = tokenEpochService.refresh();
+
+        // Then
+        assertThat(read).isZero();
+        assertThat(tokenEpochService.currentEpoch(5L)).isEqualTo(2L);
+        verify(userRepository).findTokenEpochsUpdatedSince(updated.minusSeconds(5));
+        verify(userRepository, never()).findRevokedTokenEpochs();
+    }
+}
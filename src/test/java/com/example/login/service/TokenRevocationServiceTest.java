@@ -0,0 +1,200 @@
+package com.example.login.service;
+
+import com.example.login.config.JwtConfig;
+import com.example.login.security.JdbcRevocationBackend;
+import com.example.login.security.RevocationBackend;
+import com.example.login.security.TokenKey;
+import com.example.login.security.TokenRevocationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevocationBackend backend;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationService revocationService;
+    private long expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.getRevocation().setSyncBatchSize(2);
+        revocationService = new TokenRevocationService(backend, new TokenRevocationStore(), jwtConfig, meterRegistry);
+        expiresAt = System.currentTimeMillis() + 3_600_000;
+    }
+
+    @Test
+    void isRevoked_WithUnknownToken_ShouldNotQueryBackend() {
+        // When
+        boolean revoked = revocationService.isRevoked(TokenKey.random(), expiresAt);
+
+        // Then
+        assertThat(revoked).isFalse();
+        verify(backend, never()).isRevoked(any(), anyLong());
+        assertThat(meterRegistry.counter("jwt.revocations.remote.lookups").count()).isZero();
+    }
+
+    @Test
+    void revoke_ShouldWriteToBackendAndAnswerLocally() {
+        // Given
+        TokenKey key = TokenKey.random();
+
+        // When
+        revocationService.revoke(key, expiresAt);
+
+        // Then
+        verify(backend).revoke(key, expiresAt);
+        assertThat(revocationService.isRevoked(key, expiresAt)).isTrue();
+        verify(backend, never()).isRevoked(any(), anyLong());
+    }
+
+    @Test
+    void revoke_WhenBackendFails_ShouldStillRevokeOnThisNode() {
+        // Given
+        TokenKey key = TokenKey.random();
+        doThrow(new IllegalStateException("down")).when(backend).revoke(key, expiresAt);
+
+        // When
+        revocationService.revoke(key, expiresAt);
+
+        // Then
+        assertThat(revocationService.isRevoked(key, expiresAt)).isTrue();
+        assertThat(meterRegistry.counter("jwt.revocations.backend.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void sync_ShouldFollowFeedAndConfirmRemoteRevocations() {
+        // Given
+        TokenKey first = TokenKey.random();
+        TokenKey second = TokenKey.random();
+        TokenKey third = TokenKey.random();
+        when(backend.fetchSince(eq(0L), anyLong(), eq(2))).thenReturn(List.of(
+                new RevocationBackend.RevocationRecord(1, first, expiresAt),
+                new RevocationBackend.RevocationRecord(2, second, expiresAt)));
+        when(backend.fetchSince(eq(2L), anyLong(), eq(2))).thenReturn(List.of(
+                new RevocationBackend.RevocationRecord(3, third, expiresAt)));
+        when(backend.isRevoked(eq(third), anyLong())).thenReturn(true);
+
+        // When
+        int read = revocationService.sync();
+
+        // Then
+        assertThat(read).isEqualTo(3);
+        assertThat(revocationService.isRevoked(third, expiresAt)).isTrue();
+        assertThat(revocationService.isRevoked(third, expiresAt)).isTrue();
+        verify(backend, times(1)).isRevoked(eq(third), anyLong());
+    }
+
+    @Test
+    void isRevoked_AfterClearingFalsePositive_ShouldNotQueryBackendAgain() {
+        // Given
+        TokenKey key = TokenKey.random();
+        when(backend.fetchSince(eq(0L), anyLong(), anyInt())).thenReturn(List.of(
+                new RevocationBackend.RevocationRecord(1, key, expiresAt)));
+        revocationService.sync();
+        when(backend.isRevoked(eq(key), anyLong())).thenReturn(false);
+
+        // When
+        boolean first = revocationService.isRevoked(key, expiresAt);
+        boolean second = revocationService.isRevoked(key, expiresAt);
+
+        // Then
+        assertThat(first).isFalse();
+        assertThat(second).isFalse();
+        verify(backend, times(1)).isRevoked(eq(key), anyLong());
+    }
+
+    @Test
+    void isRevoked_WhenLookupFails_ShouldTreatFilterHitAsRevoked() {
+        // Given
+        TokenKey key = TokenKey.random();
+        when(backend.fetchSince(eq(0L), anyLong(), anyInt())).thenReturn(List.of(
+                new RevocationBackend.RevocationRecord(1, key, expiresAt)));
+        revocationService.sync();
+        when(backend.isRevoked(eq(key), anyLong())).thenThrow(new IllegalStateException("down"));
+
+        // When
+        boolean revoked = revocationService.isRevoked(key, expiresAt);
+
+        // Then
+        assertThat(revoked).isTrue();
+    }
+
+    @Test
+    void rebuild_ShouldDropKeysNoLongerInBackend() {
+        // Given
+        TokenKey key = TokenKey.random();
+        when(backend.fetchSince(eq(0L), anyLong(), anyInt()))
+                .thenReturn(List.of(new RevocationBackend.RevocationRecord(1, key, expiresAt)))
+                .thenReturn(List.of());
+        revocationService.sync();
+
+        // When
+        revocationService.rebuild();
+
+        // Then
+        assertThat(revocationService.isRevoked(key, expiresAt)).isFalse();
+        verify(backend, never()).isRevoked(any(), anyLong());
+    }
+
+    @Test
+    void sync_WhenBackendFails_ShouldNotThrow() {
+        // Given
+        when(backend.fetchSince(anyLong(), anyLong(), anyInt())).thenThrow(new IllegalStateException("down"));
+
+        // When
+        int read = revocationService.sync();
+
+        // Then
+        assertThat(read).isZero();
+    }
+
+    @Test
+    void sync_WhenRowsCommitOutOfIdOrder_ShouldPickUpTheLateRow() {
+        // Given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE revoked_tokens (id BIGINT PRIMARY KEY, token_hi BIGINT, token_lo BIGINT, "
+                + "expires_at_ms BIGINT)");
+        JwtConfig jwtConfig = new JwtConfig();
+        TokenRevocationService service = new TokenRevocationService(new JdbcRevocationBackend(jdbcTemplate),
+                new TokenRevocationStore(), jwtConfig, meterRegistry);
+        TokenKey early = TokenKey.random();
+        TokenKey late = TokenKey.random();
+        // ID 2 commits first; ID 1 was allocated earlier but commits after the first poll
+        insertRevocation(jdbcTemplate, 2, early);
+        service.sync();
+        insertRevocation(jdbcTemplate, 1, late);
+
+        // When
+        service.sync();
+
+        // Then
+        assertThat(service.isRevoked(late, expiresAt)).isTrue();
+        assertThat(service.isRevoked(early, expiresAt)).isTrue();
+    }
+
+    private void insertRevocation(JdbcTemplate jdbcTemplate, long id, TokenKey key) {
+        jdbcTemplate.update("INSERT INTO revoked_tokens VALUES (?, ?, ?, ?)", id, key.high(), key.low(), expiresAt);
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import com.example.login.entity.User;
+import com.example.login.repository.UserRepository;
+import com.example.login.repository.UserRoleRepository;
+import com.example.login.repository.UserRoleRepository.RoleClientClaim;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAuthzCacheTest {
+
+    private UserRepository userRepository;
+    private UserRoleRepository userRoleRepository;
+    private TokenEpochService tokenEpochService;
+    private JdbcTemplate jdbcTemplate;
+    private LoginConfig loginConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private UserAuthzCache authzCache;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userRoleRepository = mock(UserRoleRepository.class);
+        tokenEpochService = mock(TokenEpochService.class);
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, date_updated TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE user_roles (id_user BIGINT, id_client BIGINT, id_role BIGINT, "
+                + "date_updated TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE client_roles (id_client BIGINT, id_role BIGINT, date_updated TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE roles (id BIGINT PRIMARY KEY, date_updated TIMESTAMP NOT NULL)");
+        loginConfig = new LoginConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        testUser = User.builder()
+                .id(1L)
+                .idClient(1L)
+                .username("testuser")
+                .email("test@example.com")
+                .name("Test User")
+                .passwordHash("hashedpassword")
+                .passwordSalt("salt")
+                .passwordType(User.PasswordType.MD5)
+                .status(User.UserStatus.ACTIVE)
+                .build();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRoleRepository.findRoleClientClaimsByIdUser(1L)).thenReturn(List.of(
+                claim("ROLE_ADMIN", 1L),
+                claim("ROLE_USER", 1L),
+                claim("ROLE_USER", 2L)));
+        authzCache = newCache();
+    }
+
+    @Test
+    void findByUsername_ShouldQueryOnceThenServeFromMemory() {
+        // When
+        Optional<User> first = authzCache.findByUsername("testuser");
+        Optional<User> second = authzCache.findByUsername("testuser");
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(second).isPresent();
+        assertThat(second.get().getPasswordHash()).isEqualTo("hashedpassword");
+        assertThat(second.get()).isNotSameAs(testUser);
+        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRoleRepository, times(1)).findRoleClientClaimsByIdUser(1L);
+    }
+
+    @Test
+    void findByUsername_ShouldCarryEpochOfSessionsRevokedSinceCaching() {
+        // Given
+        authzCache.findByUsername("testuser");
+        when(tokenEpochService.currentEpoch(1L)).thenReturn(3L);
+
+        // When
+        Optional<User> result = authzCache.findByUsername("testuser");
+
+        // Then
+        assertThat(result).get().extracting(User::getTokenEpoch).isEqualTo(3L);
+    }
+
+    @Test
+    void findByUsername_WithOtherSpelling_ShouldNotBeServedFromMemory() {
+        // Given
+        authzCache.findByUsername("testuser");
+        when(userRepository.findByUsername("TestUser")).thenReturn(Optional.of(testUser));
+
+        // When
+        authzCache.findByUsername("TestUser");
+        authzCache.findByUsername("TestUser");
+
+        // Then
+        verify(userRepository, times(2)).findByUsername("TestUser");
+    }
+
+    @Test
+    void get_ShouldBuildDistinctClaimsFromOneQuery() {
+        // When
+        UserAuthzSnapshot snapshot = authzCache.get(testUser);
+        authzCache.get(testUser);
+
+        // Then
+        assertThat(snapshot.roles()).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(snapshot.clientIds()).containsExactly(1L, 2L);
+        verify(userRoleRepository, times(1)).findRoleClientClaimsByIdUser(1L);
+    }
+
+    @Test
+    void invalidate_ShouldReloadOnNextLogin() {
+        // Given
+        authzCache.findByUsername("testuser");
+
+        // When
+        authzCache.invalidate(1L);
+        authzCache.findByUsername("testuser");
+
+        // Then
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void invalidate_DuringLoad_ShouldNotCacheLoadedSnapshot() {
+        // Given
+        when(userRoleRepository.findRoleClientClaimsByIdUser(1L)).thenAnswer(invocation -> {
+            authzCache.invalidate(1L);
+            return List.of(claim("ROLE_USER", 1L));
+        });
+
+        // When
+        UserAuthzSnapshot snapshot = authzCache.get(testUser);
+        authzCache.get(testUser);
+
+        // Then
+        assertThat(snapshot.roles()).containsExactly("ROLE_USER");
+        verify(userRoleRepository, times(2)).findRoleClientClaimsByIdUser(1L);
+    }
+
+    @Test
+    void reconcile_ShouldDropUsersWhoseRolesChangedOnOtherNodes() {
+        // Given
+        authzCache.get(testUser);
+        jdbcTemplate.update("INSERT INTO user_roles VALUES (1, 1, 3, ?)", LocalDateTime.now());
+
+        // When
+        int read = authzCache.reconcile();
+        authzCache.get(testUser);
+
+        // Then
+        assertThat(read).isEqualTo(1);
+        verify(userRoleRepository, times(2)).findRoleClientClaimsByIdUser(1L);
+    }
+
+    @Test
+    void reconcile_WhenRoleChanged_ShouldDropEverySnapshot() {
+        // Given
+        authzCache.get(testUser);
+        jdbcTemplate.update("INSERT INTO roles VALUES (3, ?)", LocalDateTime.now());
+
+        // When
+        authzCache.reconcile();
+        authzCache.get(testUser);
+
+        // Then
+        verify(userRoleRepository, times(2)).findRoleClientClaimsByIdUser(1L);
+    }
+
+    @Test
+    void reconcile_ShouldIgnoreRowsChangedBeforeStartup() {
+        // Given
+        jdbcTemplate.update("INSERT INTO users VALUES (1, ?)", LocalDateTime.now().minusDays(1));
+        authzCache.get(testUser);
+
+        // When
+        int read = authzCache.reconcile();
+        authzCache.get(testUser);
+
+        // Then
+        assertThat(read).isZero();
+        verify(userRoleRepository, times(1)).findRoleClientClaimsByIdUser(1L);
+    }
+
+    @Test
+    void reconcile_WhenTablesMissing_ShouldCountFailure() {
+        // Given
+        jdbcTemplate.execute("DROP TABLE user_roles");
+
+        // When
+        int read = authzCache.reconcile();
+
+        // Then
+        assertThat(read).isZero();
+        assertThat(meterRegistry.get("users.authz.reconcile.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void findByUsername_WhenDisabled_ShouldAlwaysQuery() {
+        // Given
+        loginConfig.getAuthzCache().setEnabled(false);
+        authzCache = newCache();
+
+        // When
+        authzCache.findByUsername("testuser");
+        authzCache.findByUsername("testuser");
+        authzCache.get(testUser);
+
+        // Then
+        verify(userRepository, times(2)).findByUsername("testuser");
+        verify(userRoleRepository, times(1)).findRoleClientClaimsByIdUser(1L);
+    }
+
+    private UserAuthzCache newCache() {
+        return new UserAuthzCache(userRepository, userRoleRepository, tokenEpochService, jdbcTemplate,
+                loginConfig, meterRegistry);
+    }
+
+    private static RoleClientClaim claim(String role, Long idClient) {
+        return new RoleClientClaim() {
+            @Override
+            public String getRole() {
+                return role;
+            }
+
+            @Override
+            public Long getIdClient() {
+                return idClient;
+            }
+        };
+    }
+}
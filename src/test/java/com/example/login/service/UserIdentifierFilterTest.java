@@ -0,0 +1,123 @@
+package com.example.login.service;
+
+import com.example.login.config.LoginConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserIdentifierFilterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LoginConfig loginConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private UserIdentifierFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(128) NOT NULL, "
+                + "email VARCHAR(128) NOT NULL, date_updated TIMESTAMP NOT NULL)");
+        insertUser(1, "admin", "admin@example.com", LocalDateTime.now().minusDays(1));
+        insertUser(2, "José", "jose@example.com", LocalDateTime.now().minusDays(1));
+        loginConfig = new LoginConfig();
+        loginConfig.getIdentifierFilter().setExpectedInsertions(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new UserIdentifierFilter(jdbcTemplate, loginConfig, meterRegistry);
+    }
+
+    @Test
+    void mightExist_BeforeFirstBuild_ShouldLetEverythingThrough() {
+        // When / Then
+        assertThat(filter.isActive()).isFalse();
+        assertThat(filter.mightExist("nobody")).isTrue();
+    }
+
+    @Test
+    void rebuild_ShouldRejectUnknownIdentifiers() {
+        // When
+        filter.rebuild();
+
+        // Then
+        assertThat(filter.isActive()).isTrue();
+        assertThat(filter.mightExist("admin")).isTrue();
+        assertThat(filter.mightExist("admin@example.com")).isTrue();
+        assertThat(filter.mightExist("nobody")).isFalse();
+        assertThat(filter.mightExist("nobody@example.com")).isFalse();
+        assertThat(meterRegistry.get("users.identifier-filter.rejected").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void mightExist_ShouldMatchLikeCaseAndAccentInsensitiveCollation() {
+        // Given
+        filter.rebuild();
+
+        // When / Then
+        assertThat(filter.mightExist("ADMIN")).isTrue();
+        assertThat(filter.mightExist(" Admin@Example.com ")).isTrue();
+        assertThat(filter.mightExist("jose")).isTrue();
+        assertThat(filter.mightExist("JOSÉ")).isTrue();
+    }
+
+    @Test
+    void add_ShouldAcceptUserCreatedOnThisNode() {
+        // Given
+        filter.rebuild();
+
+        // When
+        filter.add("newuser", "newuser@example.com", null);
+
+        // Then
+        assertThat(filter.mightExist("newuser")).isTrue();
+        assertThat(filter.mightExist("newuser@example.com")).isTrue();
+    }
+
+    @Test
+    void sync_ShouldPickUpUsersCreatedOnOtherNodes() {
+        // Given
+        filter.rebuild();
+        insertUser(3, "remote", "remote@example.com", LocalDateTime.now());
+
+        // When
+        int read = filter.sync();
+
+        // Then
+        assertThat(read).isGreaterThanOrEqualTo(1);
+        assertThat(filter.mightExist("remote")).isTrue();
+    }
+
+    @Test
+    void mightExist_WhenDisabled_ShouldLetEverythingThrough() {
+        // Given
+        filter.rebuild();
+        loginConfig.getIdentifierFilter().setEnabled(false);
+
+        // When / Then
+        assertThat(filter.mightExist("nobody")).isTrue();
+    }
+
+    @Test
+    void rebuild_WhenTableMissing_ShouldKeepLettingEverythingThrough() {
+        // Given
+        jdbcTemplate.execute("DROP TABLE users");
+
+        // When
+        filter.rebuild();
+
+        // Then
+        assertThat(filter.mightExist("nobody")).isTrue();
+        assertThat(meterRegistry.get("users.identifier-filter.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    private void insertUser(long id, String username, String email, LocalDateTime dateUpdated) {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, date_updated) VALUES (?, ?, ?, ?)",
+                id, username, email, dateUpdated);
+    }
+}
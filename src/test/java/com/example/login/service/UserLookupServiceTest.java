@@ -1,11 +1,8 @@
 package com.example.login.service;
 
 import com.example.login.entity.User;
-import com.example.login.entity.UserRole;
-import com.example.login.entity.ClientRole;
-import com.example.login.entity.Role;
 import com.example.login.repository.UserRepository;
-import com.example.login.repository.UserRoleRepository;
+import com.example.login.service.UserLookupService.LoginClaims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +17,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,11 +27,20 @@ class UserLookupServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private UserRoleRepository userRoleRepository;
+    private UserAuthzCache authzCache;
 
     @Mock
     private PasswordService passwordService;
 
+    @Mock
+    private LastLoginWriter lastLoginWriter;
+
+    @Mock
+    private PasswordRehashService passwordRehashService;
+
+    @Mock
+    private UserIdentifierFilter identifierFilter;
+
     @InjectMocks
     private UserLookupService userLookupService;
 
@@ -52,6 +59,7 @@ class UserLookupServiceTest {
                 .status(User.UserStatus.ACTIVE)
                 .dateCreated(LocalDateTime.now())
                 .build();
+        lenient().when(identifierFilter.mightExist(anyString())).thenReturn(true);
     }
 
     @Test
@@ -94,7 +102,7 @@ class UserLookupServiceTest {
     @Test
     void authenticateByUsername_WhenValidCredentials_ShouldReturnUser() {
         // Given
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(authzCache.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(passwordService.isValid(any(User.PasswordType.class), any(), any(), any())).thenReturn(true);
 
         // When
@@ -104,12 +112,41 @@ class UserLookupServiceTest {
         assertThat(result).isPresent();
         assertThat(result.get().getUsername()).isEqualTo("testuser");
         verify(passwordService).isValid(testUser.getPasswordType(), testUser.getPasswordSalt(), "password", testUser.getPasswordHash());
+        verify(passwordRehashService).rehashIfNeeded(testUser, "password");
+    }
+
+    @Test
+    void authenticateByUsername_WithLegacyHash_ShouldPayForPolicyHashToo() {
+        // Given
+        when(authzCache.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordService.isValid(any(User.PasswordType.class), any(), any(), any())).thenReturn(false);
+
+        // When
+        userLookupService.authenticateByUsername("testuser", "password");
+
+        // Then
+        verify(passwordService).verifyDummy("password");
+    }
+
+    @Test
+    void authenticateByUsername_WithKeyStretchingHash_ShouldNotSpendDummyHash() {
+        // Given
+        testUser.setPasswordType(User.PasswordType.ARGON2ID);
+        when(authzCache.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordService.isKeyStretching(User.PasswordType.ARGON2ID)).thenReturn(true);
+        when(passwordService.isValid(any(User.PasswordType.class), any(), any(), any())).thenReturn(true);
+
+        // When
+        userLookupService.authenticateByUsername("testuser", "password");
+
+        // Then
+        verify(passwordService, never()).verifyDummy(anyString());
     }
 
     @Test
     void authenticateByUsername_WhenInvalidPassword_ShouldReturnEmpty() {
         // Given
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(authzCache.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(passwordService.isValid(any(User.PasswordType.class), any(), any(), any())).thenReturn(false);
 
         // When
@@ -118,13 +155,14 @@ class UserLookupServiceTest {
         // Then
         assertThat(result).isEmpty();
         verify(passwordService).isValid(testUser.getPasswordType(), testUser.getPasswordSalt(), "wrongpassword", testUser.getPasswordHash());
+        verify(passwordRehashService, never()).rehashIfNeeded(any(), any());
     }
 
     @Test
     void authenticateByUsername_WhenUserInactive_ShouldReturnEmpty() {
         // Given
         testUser.setStatus(User.UserStatus.INACTIVE);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(authzCache.findByUsername("testuser")).thenReturn(Optional.of(testUser));
 
         // When
         Optional<User> result = userLookupService.authenticateByUsername("testuser", "password");
@@ -134,6 +172,128 @@ class UserLookupServiceTest {
         verify(passwordService, never()).isValid(any(User.PasswordType.class), any(), any(), any());
     }
 
+    @Test
+    void authenticateByUsername_WhenUserSuspended_ShouldStillSpendDummyHash() {
+        // Given
+        testUser.setStatus(User.UserStatus.SUSPENDED);
+        when(authzCache.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // When
+        Optional<User> result = userLookupService.authenticateByUsername("testuser", "password");
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(passwordService).verifyDummy("password");
+    }
+
+    @Test
+    void authenticate_WithUsername_ShouldResolveThroughAuthzCache() {
+        // Given
+        when(authzCache.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordService.isValid(any(User.PasswordType.class), any(), any(), any())).thenReturn(true);
+
+        // When
+        Optional<User> result = userLookupService.authenticate("testuser", "password");
+
+        // Then
+        assertThat(result).contains(testUser);
+        verify(authzCache).findByUsername("testuser");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void authenticate_WithEmail_ShouldUseOneQueryAndOnePasswordCheck() {
+        // Given
+        when(userRepository.findByUsernameOrEmail("test@example.com")).thenReturn(List.of(testUser));
+        when(passwordService.isValid(any(User.PasswordType.class), any(), any(), any())).thenReturn(false);
+
+        // When
+        Optional<User> result = userLookupService.authenticate("test@example.com", "wrongpassword");
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(userRepository).findByUsernameOrEmail("test@example.com");
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(passwordService, times(1)).isValid(any(User.PasswordType.class), any(), any(), any());
+    }
+
+    @Test
+    void authenticate_WhenUsernameAndEmailBothMatch_ShouldPreferUsername() {
+        // Given
+        User emailOwner = User.builder()
+                .id(2L)
+                .username("other")
+                .email("odd@name")
+                .status(User.UserStatus.ACTIVE)
+                .passwordType(User.PasswordType.MD5)
+                .build();
+        testUser.setUsername("odd@name");
+        when(userRepository.findByUsernameOrEmail("odd@name")).thenReturn(List.of(emailOwner, testUser));
+        when(passwordService.isValid(any(User.PasswordType.class), any(), any(), any())).thenReturn(true);
+
+        // When
+        Optional<User> result = userLookupService.authenticate("odd@name", "password");
+
+        // Then
+        assertThat(result).contains(testUser);
+    }
+
+    @Test
+    void authenticate_WhenUserNotFound_ShouldOnlySpendDummyHash() {
+        // Given
+        when(userRepository.findByUsernameOrEmail("nobody@example.com")).thenReturn(List.of());
+
+        // When
+        Optional<User> result = userLookupService.authenticate("nobody@example.com", "password");
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(passwordService, never()).isValid(any(User.PasswordType.class), any(), any(), any());
+        verify(passwordService).verifyDummy("password");
+    }
+
+    @Test
+    void authenticate_WhenFilterRejectsIdentifier_ShouldNotQueryUsers() {
+        // Given
+        when(identifierFilter.mightExist("stuffed@example.com")).thenReturn(false);
+
+        // When
+        Optional<User> result = userLookupService.authenticate("stuffed@example.com", "password");
+
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(userRepository);
+        verify(passwordService).verifyDummy("password");
+    }
+
+    @Test
+    void authenticateByUsername_WhenFilterRejectsIdentifier_ShouldNotQueryUsers() {
+        // Given
+        when(identifierFilter.mightExist("stuffed")).thenReturn(false);
+
+        // When
+        Optional<User> result = userLookupService.authenticateByUsername("stuffed", "password");
+
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(userRepository);
+        verify(passwordService).verifyDummy("password");
+    }
+
+    @Test
+    void updateLastLogin_ShouldBufferWriteInsteadOfSaving() {
+        // Given
+        when(lastLoginWriter.record(eq(1L), any(LocalDateTime.class))).thenReturn(true);
+
+        // When
+        userLookupService.updateLastLogin(testUser);
+
+        // Then
+        assertThat(testUser.getDateLastLogin()).isNotNull();
+        verify(lastLoginWriter).record(1L, testUser.getDateLastLogin());
+        verify(userRepository, never()).save(any());
+    }
+
     @Test
     void validatePassword_WhenValidPassword_ShouldReturnTrue() {
         // Given
@@ -160,51 +320,53 @@ class UserLookupServiceTest {
         verify(passwordService).isValid(testUser.getPasswordType(), testUser.getPasswordSalt(), "wrongpassword", testUser.getPasswordHash());
     }
 
+    @Test
+    void getLoginClaims_ShouldServeClaimsFromAuthzCache() {
+        // Given
+        when(authzCache.get(testUser)).thenReturn(snapshot(List.of("ROLE_ADMIN", "ROLE_USER"), List.of(1L, 2L)));
+
+        // When
+        LoginClaims claims = userLookupService.getLoginClaims(testUser);
+
+        // Then
+        assertThat(claims.roles()).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(claims.clientIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void getLoginClaims_WhenUserIsNull_ShouldReturnEmptyClaims() {
+        // When
+        LoginClaims claims = userLookupService.getLoginClaims(null);
+
+        // Then
+        assertThat(claims.roles()).isEmpty();
+        assertThat(claims.clientIds()).isEmpty();
+        verifyNoInteractions(authzCache);
+    }
+
     @Test
     void getUserRoles_WhenUserHasRoles_ShouldReturnRoles() {
         // Given
-        Role adminRole = new Role("ROLE_ADMIN", true);
-        Role userRole = new Role("ROLE_USER", true);
-        
-        ClientRole clientRole1 = new ClientRole();
-        clientRole1.setRole(adminRole);
-        
-        ClientRole clientRole2 = new ClientRole();
-        clientRole2.setRole(userRole);
-        
-        UserRole userRole1 = new UserRole();
-        userRole1.setIdUser(1L);
-        userRole1.setIdClient(1L);
-        userRole1.setIdRole(1L);
-        userRole1.setClientRole(clientRole1);
-        
-        UserRole userRole2 = new UserRole();
-        userRole2.setIdUser(1L);
-        userRole2.setIdClient(1L);
-        userRole2.setIdRole(2L);
-        userRole2.setClientRole(clientRole2);
-        
-        when(userRoleRepository.findByIdUser(1L)).thenReturn(List.of(userRole1, userRole2));
+        when(authzCache.get(testUser)).thenReturn(snapshot(List.of("ROLE_ADMIN", "ROLE_USER"), List.of(1L)));
 
         // When
         List<String> roles = userLookupService.getUserRoles(testUser);
 
         // Then
         assertThat(roles).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
-        verify(userRoleRepository).findByIdUser(1L);
+        verify(authzCache).get(testUser);
     }
 
     @Test
     void getUserRoles_WhenUserHasNoRoles_ShouldReturnEmptyList() {
         // Given
-        when(userRoleRepository.findByIdUser(1L)).thenReturn(List.of());
+        when(authzCache.get(testUser)).thenReturn(snapshot(List.of(), List.of()));
 
         // When
         List<String> roles = userLookupService.getUserRoles(testUser);
 
         // Then
         assertThat(roles).isEmpty();
-        verify(userRoleRepository).findByIdUser(1L);
     }
 
     @Test
@@ -214,43 +376,32 @@ class UserLookupServiceTest {
 
         // Then
         assertThat(roles).isEmpty();
-        verify(userRoleRepository, never()).findByIdUser(any());
+        verifyNoInteractions(authzCache);
     }
 
     @Test
     void getUserClientIds_WhenUserHasClients_ShouldReturnClientIds() {
         // Given
-        UserRole userRole1 = new UserRole();
-        userRole1.setIdUser(1L);
-        userRole1.setIdClient(1L);
-        userRole1.setIdRole(1L);
-        
-        UserRole userRole2 = new UserRole();
-        userRole2.setIdUser(1L);
-        userRole2.setIdClient(2L);
-        userRole2.setIdRole(2L);
-        
-        when(userRoleRepository.findByIdUser(1L)).thenReturn(List.of(userRole1, userRole2));
+        when(authzCache.get(testUser)).thenReturn(snapshot(List.of("ROLE_USER"), List.of(1L, 2L)));
 
         // When
         List<Long> clientIds = userLookupService.getUserClientIds(testUser);
 
         // Then
         assertThat(clientIds).containsExactlyInAnyOrder(1L, 2L);
-        verify(userRoleRepository).findByIdUser(1L);
+        verify(authzCache).get(testUser);
     }
 
     @Test
     void getUserClientIds_WhenUserHasNoClients_ShouldReturnEmptyList() {
         // Given
-        when(userRoleRepository.findByIdUser(1L)).thenReturn(List.of());
+        when(authzCache.get(testUser)).thenReturn(snapshot(List.of(), List.of()));
 
         // When
         List<Long> clientIds = userLookupService.getUserClientIds(testUser);
 
         // Then
         assertThat(clientIds).isEmpty();
-        verify(userRoleRepository).findByIdUser(1L);
     }
 
     @Test
@@ -260,6 +411,10 @@ class UserLookupServiceTest {
 
         // Then
         assertThat(clientIds).isEmpty();
-        verify(userRoleRepository, never()).findByIdUser(any());
+        verifyNoInteractions(authzCache);
+    }
+
+    private UserAuthzSnapshot snapshot(List<String> roles, List<Long> clientIds) {
+        return UserAuthzSnapshot.of(testUser, roles, clientIds);
     }
 }
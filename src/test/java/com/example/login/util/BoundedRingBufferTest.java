@@ -0,0 +1,120 @@
+package com.example.login.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedRingBufferTest {
+
+    @Test
+    void constructor_ShouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new BoundedRingBuffer<Integer>(1000).capacity()).isEqualTo(1024);
+        assertThat(new BoundedRingBuffer<Integer>(1024).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> new BoundedRingBuffer<Integer>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void offerAndPoll_ShouldBeFifo() {
+        // Given
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(4);
+
+        // When
+        buffer.offer(1);
+        buffer.offer(2);
+        buffer.offer(3);
+
+        // Then
+        assertThat(buffer.size()).isEqualTo(3);
+        assertThat(buffer.poll()).isEqualTo(1);
+        assertThat(buffer.poll()).isEqualTo(2);
+        assertThat(buffer.poll()).isEqualTo(3);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void offer_WhenFull_ShouldFailWithoutBlocking() {
+        // Given
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(2);
+        buffer.offer(1);
+        buffer.offer(2);
+
+        // When
+        boolean accepted = buffer.offer(3);
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(buffer.poll()).isEqualTo(1);
+        assertThat(buffer.offer(3)).isTrue();
+    }
+
+    @Test
+    void drainTo_ShouldMoveAtMostMaxElements() {
+        // Given
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> target = new ArrayList<>();
+
+        // When
+        int drained = buffer.drainTo(target, 3);
+
+        // Then
+        assertThat(drained).isEqualTo(3);
+        assertThat(target).containsExactly(0, 1, 2);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentProducers_ShouldNeitherLoseNorDuplicateElements() throws Exception {
+        // Given
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger done = new AtomicInteger();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.incrementAndGet();
+                return null;
+            });
+        }
+        ConcurrentHashMap.KeySetView<Integer, Boolean> seen = ConcurrentHashMap.newKeySet();
+
+        // When
+        start.countDown();
+        int received = 0;
+        while (received < producers * perProducer) {
+            Integer element = buffer.poll();
+            if (element != null) {
+                assertThat(seen.add(element)).isTrue();
+                received++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(done.get()).isEqualTo(producers);
+        assertThat(seen).hasSize(producers * perProducer);
+        assertThat(buffer.poll()).isNull();
+    }
+}
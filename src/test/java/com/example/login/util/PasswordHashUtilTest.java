@@ -6,6 +6,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("PasswordHashUtil Tests")
@@ -199,4 +201,101 @@ class PasswordHashUtilTest {
         assertThrows(IllegalArgumentException.class, () -> 
             PasswordHashUtil.generateHash(PasswordType.SHA256, "", TEST_PASSWORD));
     }
+
+    @Test
+    @DisplayName("Should store Argon2id cost parameters with the salt")
+    void shouldStoreArgon2idCostParametersWithSalt() {
+        // Given
+        String salt = PasswordHashUtil.generateArgon2Salt(1024, 1, 1);
+
+        // When
+        String hash = PasswordHashUtil.generateHash(PasswordType.ARGON2ID, salt, TEST_PASSWORD);
+
+        // Then
+        assertEquals(Map.of("m", 1024, "t", 1, "p", 1), PasswordHashUtil.costParameters(salt));
+        assertEquals(64, hash.length());
+        assertTrue(PasswordHashUtil.isValid(PasswordType.ARGON2ID, salt, TEST_PASSWORD, hash));
+        assertFalse(PasswordHashUtil.isValid(PasswordType.ARGON2ID, salt, "wrong", hash));
+    }
+
+    @Test
+    @DisplayName("Should store PBKDF2 iteration count with the salt")
+    void shouldStorePbkdf2IterationCountWithSalt() {
+        // Given
+        String salt = PasswordHashUtil.generatePbkdf2Salt(1000);
+
+        // When
+        String hash = PasswordHashUtil.generateHash(PasswordType.PBKDF2, salt, TEST_PASSWORD);
+
+        // Then
+        assertEquals(Map.of("i", 1000), PasswordHashUtil.costParameters(salt));
+        assertTrue(PasswordHashUtil.isValid(PasswordType.PBKDF2, salt, TEST_PASSWORD, hash));
+        assertFalse(PasswordHashUtil.isValid(PasswordType.PBKDF2, PasswordHashUtil.generatePbkdf2Salt(1001), TEST_PASSWORD, hash));
+    }
+
+    @Test
+    @DisplayName("Should reject KDF salts without cost parameters")
+    void shouldRejectKdfSaltsWithoutCostParameters() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () ->
+            PasswordHashUtil.generateHash(PasswordType.ARGON2ID, "abcdef1234567890abcdef1234567890", TEST_PASSWORD));
+        assertFalse(PasswordHashUtil.isValid(PasswordType.PBKDF2, "abcdef1234567890abcdef1234567890", TEST_PASSWORD, "00"));
+    }
+
+    @Test
+    @DisplayName("Should read BCrypt cost from salt")
+    void shouldReadBcryptCostFromSalt() {
+        // When & Then
+        assertEquals(5, PasswordHashUtil.bcryptCost(PasswordHashUtil.generateBcryptSalt(5)));
+        assertEquals(10, PasswordHashUtil.bcryptCost("$2a$10$VVb80cqWj.VEJ/zV1BXoKO"));
+        assertEquals(0, PasswordHashUtil.bcryptCost("b741c9d3d3c18125e3ddd5ca0e0125c5"));
+        assertEquals(0, PasswordHashUtil.bcryptCost(null));
+    }
+
+    @Test
+    @DisplayName("Should validate hashes stored by earlier releases")
+    void shouldValidateHashesStoredByEarlierReleases() {
+        // When & Then (fixtures from V6__update-all-users-with-test123.sql)
+        assertTrue(PasswordHashUtil.isValid(PasswordType.MD5, "b741c9d3d3c18125e3ddd5ca0e0125c5",
+            "test123", "a7a372980bee87cba4896863c7d65690"));
+        assertTrue(PasswordHashUtil.isValid(PasswordType.SHA256, "c0ba5a991e160a42ac9c81222f8640ae",
+            "test123", "59ec6013960bec186b6a50e22657ae6483bbccfcdf01b5826117b816609b695f"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"MD5", "SHA256", "SHA512"})
+    @DisplayName("Should hash non-ASCII passwords as UTF-8")
+    void shouldHashNonAsciiPasswordsAsUtf8(String algorithm) throws Exception {
+        // Given
+        PasswordType type = PasswordType.fromString(algorithm);
+        String salt = PasswordHashUtil.generateRandomSaltHex(16);
+        String password = "Pässwörd-\u20ac-\ud83d\udd11";
+        java.security.MessageDigest digest = java.security.MessageDigest.getInstance(
+            type == PasswordType.MD5 ? "MD5" : type == PasswordType.SHA256 ? "SHA-256" : "SHA-512");
+        digest.update(java.util.HexFormat.of().parseHex(salt));
+        String expected = java.util.HexFormat.of().formatHex(
+            digest.digest(password.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+
+        // When
+        String hash = PasswordHashUtil.generateHash(type, salt, password);
+
+        // Then
+        assertEquals(expected, hash);
+        assertTrue(PasswordHashUtil.isValid(type, salt, password, hash));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed stored hashes and salts")
+    void shouldRejectMalformedStoredHashesAndSalts() {
+        // Given
+        String salt = PasswordHashUtil.generateRandomSaltHex(16);
+        String hash = PasswordHashUtil.generateHash(PasswordType.SHA256, salt, TEST_PASSWORD);
+
+        // When & Then
+        assertFalse(PasswordHashUtil.isValid(PasswordType.SHA256, salt, TEST_PASSWORD, hash.substring(2)));
+        assertFalse(PasswordHashUtil.isValid(PasswordType.SHA256, salt, TEST_PASSWORD, "zz" + hash.substring(2)));
+        assertFalse(PasswordHashUtil.isValid(PasswordType.SHA256, "abc", TEST_PASSWORD, hash));
+        assertThrows(IllegalArgumentException.class, () ->
+            PasswordHashUtil.generateHash(PasswordType.SHA256, "not-hex", TEST_PASSWORD));
+    }
 }